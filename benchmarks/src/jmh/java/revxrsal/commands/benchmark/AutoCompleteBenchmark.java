@@ -0,0 +1,90 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import revxrsal.commands.autocomplete.AutoCompleter;
+
+/**
+ * Tab-completes the subcommands right below a root command, and a partial
+ * subcommand at the deepest level. Root command names themselves are
+ * completed by the platform, not by the {@link AutoCompleter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutoCompleteBenchmark {
+
+  @Param({"10", "100", "1000", "5000"})
+  public int commands;
+
+  @Param({"1", "4", "8"})
+  public int levels;
+
+  private AutoCompleter completer;
+  private BenchmarkActor actor;
+  private String rootInput;
+  private String leafInput;
+
+  @Setup
+  public void setup() {
+    BenchmarkCommandHandler handler = new BenchmarkCommandHandler();
+    handler.register(CommandTrees.create(commands, levels));
+    completer = handler.getAutoCompleter();
+    actor = new BenchmarkActor(handler);
+    rootInput = "c1 ";
+    String leaf = CommandTrees.leafPath(commands / 2, levels);
+    leafInput = leaf.substring(0, leaf.length() - 1);
+    checkCompletes(rootInput);
+    checkCompletes(leafInput);
+  }
+
+  private void checkCompletes(String input) {
+    if (completer.complete(actor, input).isEmpty()) {
+      throw new IllegalStateException("'" + input + "' has no completions");
+    }
+    if (actor.lastError != null) {
+      throw new IllegalStateException("'" + input + "' failed to complete: " + actor.lastError);
+    }
+  }
+
+  @Benchmark
+  public List<String> completeRoot() {
+    return completer.complete(actor, rootInput);
+  }
+
+  @Benchmark
+  public List<String> completeLeaf() {
+    return completer.complete(actor, leafInput);
+  }
+}
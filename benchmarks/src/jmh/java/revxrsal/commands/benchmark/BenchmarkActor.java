@@ -0,0 +1,94 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.benchmark;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import revxrsal.commands.CommandHandler;
+import revxrsal.commands.command.CommandActor;
+
+/**
+ * A {@link CommandActor} that swallows every reply, so benchmarks measure the
+ * framework and not the output.
+ */
+final class BenchmarkActor implements CommandActor {
+
+  private static final UUID UNIQUE_ID = new UUID(0, 0);
+
+  private final CommandHandler handler;
+
+  /* Written to so the JIT cannot prove replies are dead code */
+  volatile String lastMessage;
+
+  /* The last error, so setups can tell that an input does not dispatch */
+  volatile String lastError;
+
+  BenchmarkActor(CommandHandler handler) {
+    this.handler = handler;
+  }
+
+  @Override
+  public @NotNull String getName() {
+    return "benchmark";
+  }
+
+  @Override
+  public @NotNull UUID getUniqueId() {
+    return UNIQUE_ID;
+  }
+
+  @Override
+  public void reply(@NotNull String message) {
+    lastMessage = message;
+  }
+
+  @Override
+  public void error(@NotNull String message) {
+    lastMessage = message;
+    lastError = message;
+  }
+
+  /**
+   * Dispatches the input once, and fails if it did not reach the command. Otherwise, a broken
+   * input would silently benchmark the exception handler instead.
+   *
+   * @param input The input to check
+   */
+  void checkDispatches(@NotNull String input) {
+    lastError = null;
+    Optional<Object> result = handler.dispatch(this, input);
+    if (lastError != null) {
+      throw new IllegalStateException("'" + input + "' failed to dispatch: " + lastError);
+    }
+    if (!result.isPresent()) {
+      throw new IllegalStateException("'" + input + "' did not return a result");
+    }
+  }
+
+  @Override
+  public CommandHandler getCommandHandler() {
+    return handler;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import revxrsal.commands.annotation.Subcommand;
+import revxrsal.commands.command.CommandActor;
+import revxrsal.commands.orphan.OrphanCommand;
+import revxrsal.commands.orphan.OrphanRegistry;
+import revxrsal.commands.orphan.Orphans;
+
+/**
+ * Generates synthetic command trees. Command {@code i} with {@code levels}
+ * subcommand levels lives at {@code c<i> s1 ... s<levels - 1> run}.
+ */
+final class CommandTrees {
+
+  private CommandTrees() {
+  }
+
+  /**
+   * Creates the orphan registries for a tree, to be passed to
+   * {@link revxrsal.commands.CommandHandler#register(Object...)} in one call.
+   *
+   * @param commands Number of root commands
+   * @param levels   Number of subcommand levels below each root
+   * @return The registries
+   */
+  static @NotNull Object[] create(int commands, int levels) {
+    LeafCommand leaf = new LeafCommand();
+    Object[] registries = new OrphanRegistry[commands];
+    for (int i = 0; i < commands; i++) {
+      registries[i] = Orphans.path(parentPath(i, levels)).handler(leaf);
+    }
+    return registries;
+  }
+
+  /**
+   * Returns the input that reaches the leaf of command {@code index}, without
+   * any arguments.
+   *
+   * @param index  The command index
+   * @param levels Number of subcommand levels below the root
+   * @return The input
+   */
+  static @NotNull String leafPath(int index, int levels) {
+    return parentPath(index, levels) + " run";
+  }
+
+  private static String parentPath(int index, int levels) {
+    StringBuilder path = new StringBuilder("c").append(index);
+    for (int level = 1; level < levels; level++) {
+      path.append(" s").append(level);
+    }
+    return path.toString();
+  }
+
+  public static final class LeafCommand implements OrphanCommand {
+
+    @Subcommand("run")
+    public int run(CommandActor actor, int amount, String target) {
+      return amount;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import revxrsal.commands.CommandHandler;
+import revxrsal.commands.annotation.Command;
+import revxrsal.commands.annotation.Default;
+import revxrsal.commands.annotation.Flag;
+import revxrsal.commands.annotation.Switch;
+import revxrsal.commands.command.CommandActor;
+
+/**
+ * Dispatches a command whose signature is mostly flags and switches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlagSwitchBenchmark {
+
+  @Param({"none", "some", "all"})
+  public String options;
+
+  private CommandHandler handler;
+  private BenchmarkActor actor;
+  private String input;
+
+  @Setup
+  public void setup() {
+    handler = new BenchmarkCommandHandler();
+    handler.register(new GiveCommand());
+    actor = new BenchmarkActor(handler);
+    switch (options) {
+      case "none":
+        input = "give diamond_sword";
+        break;
+      case "some":
+        input = "give diamond_sword -amount 64 -silent";
+        break;
+      case "all":
+        input = "give -force diamond_sword -target Notch -amount 64 -silent -enchant sharpness -drop -level 5";
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown options: " + options);
+    }
+    actor.checkDispatches(input);
+  }
+
+  @Benchmark
+  public Optional<Object> dispatch() {
+    return handler.dispatch(actor, input);
+  }
+
+  public static final class GiveCommand {
+
+    @Command("give")
+    public int give(
+        CommandActor actor,
+        String item,
+        @Flag("amount") @Default("1") int amount,
+        @Flag("target") @revxrsal.commands.annotation.Optional String target,
+        @Flag("enchant") @revxrsal.commands.annotation.Optional String enchant,
+        @Flag("level") @Default("1") int level,
+        @Switch("silent") boolean silent,
+        @Switch("force") boolean force,
+        @Switch("drop") boolean drop
+    ) {
+      return amount;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import revxrsal.commands.CommandHandler;
+
+/**
+ * Measures registration, i.e. annotation parsing, parameter and resolver
+ * lookup and trie compilation, into a fresh handler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RegistrationBenchmark {
+
+  @Param({"10", "100", "1000", "5000"})
+  public int commands;
+
+  @Param({"1", "4", "8"})
+  public int levels;
+
+  private Object[] tree;
+  private CommandHandler handler;
+
+  @Setup(Level.Trial)
+  public void createTree() {
+    tree = CommandTrees.create(commands, levels);
+    int registered = new BenchmarkCommandHandler().register(tree).getCommands().size();
+    if (registered != commands) {
+      throw new IllegalStateException("Expected " + commands + " commands, but got " + registered);
+    }
+  }
+
+  // Each invocation takes milliseconds, so the per-invocation setup cost is negligible
+  @Setup(Level.Invocation)
+  public void createHandler() {
+    handler = new BenchmarkCommandHandler();
+  }
+
+  @Benchmark
+  public CommandHandler register() {
+    return handler.register(tree);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import revxrsal.commands.command.ArgumentStack;
+import revxrsal.commands.util.QuotedStringTokenizer;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenizerBenchmark {
+
+  @Param({"plain", "quoted", "escaped"})
+  public String shape;
+
+  private String input;
+  private String[] split;
+
+  @Setup
+  public void setup() {
+    switch (shape) {
+      case "plain":
+        input = "give Notch diamond_sword 64 -silent";
+        break;
+      case "quoted":
+        input = "give Notch \"diamond sword of doom\" 64 -silent";
+        break;
+      case "escaped":
+        input = "msg Notch \"he said \\\"hi\\\" to me\" -silent";
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown shape: " + shape);
+    }
+    split = input.split(" ");
+  }
+
+  @Benchmark
+  public ArgumentStack parseString() {
+    return QuotedStringTokenizer.parse(input);
+  }
+
+  @Benchmark
+  public ArgumentStack parseArray() {
+    return QuotedStringTokenizer.parse(split);
+  }
+
+  @Benchmark
+  public ArgumentStack parseForAutoCompletion() {
+    return QuotedStringTokenizer.parseForAutoCompletion(input);
+  }
+}
@@ -48,6 +48,30 @@ public interface BukkitCommandHandler extends CommandHandler {
    */
   @NotNull Plugin getPlugin();
 
+  /**
+   * Sets whether player suggestions should leave out the players that the
+   * completing player cannot see, for example because they are vanished.
+   * <p>
+   * By default, this is true.
+   *
+   * @param filter Whether to filter hidden players
+   * @return This command handler
+   */
+  @NotNull BukkitCommandHandler filterHiddenPlayers(boolean filter);
+
+  /**
+   * Enables an on-disk index of every player that has joined the server, which
+   * is used to resolve and suggest {@link org.bukkit.OfflinePlayer} parameters
+   * without asking Bukkit to look up names.
+   * <p>
+   * The index is kept in this plugin's data folder and is rebuilt
+   * asynchronously every time it is enabled. Until the first build completes,
+   * lookups fall back to {@link org.bukkit.Bukkit#getOfflinePlayer(String)}.
+   *
+   * @return This command handler
+   */
+  @NotNull BukkitCommandHandler enableOfflinePlayerIndex();
+
   /**
    * Creates a new {@link BukkitCommandHandler} for the specified plugin
    *
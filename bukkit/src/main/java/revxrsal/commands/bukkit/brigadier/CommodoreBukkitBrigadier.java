@@ -37,6 +37,7 @@ import revxrsal.commands.bukkit.EntitySelector;
 import revxrsal.commands.bukkit.core.BukkitActor;
 import revxrsal.commands.command.CommandActor;
 import revxrsal.commands.command.CommandParameter;
+import revxrsal.commands.core.FlightRecorderEvents;
 import revxrsal.commands.util.Primitives;
 
 import java.util.ArrayList;
@@ -137,8 +138,11 @@ public final class CommodoreBukkitBrigadier implements BukkitBrigadier {
 
     @Override public void register() {
         if (!isSupported()) return;
+        Object event = FlightRecorderEvents.beginBrigadierRebuild();
         NodeParser parser = new NodeParser(this);
-        parser.parse(handler).forEach(n -> register(n.getNode()));
+        List<Node> nodes = parser.parse(handler);
+        nodes.forEach(n -> register(n.getNode()));
+        FlightRecorderEvents.commitBrigadierRebuild(event, nodes.size());
     }
 
     @Override public @NotNull BukkitCommandHandler getCommandHandler() {
@@ -30,6 +30,7 @@ import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import revxrsal.commands.CommandHandler;
+import revxrsal.commands.autocomplete.PrefixSuggestionProvider;
 import revxrsal.commands.bukkit.BukkitBrigadier;
 import revxrsal.commands.bukkit.annotation.LiteralEnum;
 import revxrsal.commands.bukkit.core.BukkitHandler;
@@ -210,12 +211,15 @@ final class NodeParser {
                     ArgumentStack args = ArgumentStack.parseForAutoCompletion(
                             input.startsWith("/") ? input.substring(1) : input
                     );
-                    parameter.getSuggestionProvider().getSuggestions(args, actor, parameter.getDeclaringCommand())
-                            .stream()
-                            .filter(c -> c.toLowerCase().startsWith(args.getLast().toLowerCase()))
-                            .sorted(String.CASE_INSENSITIVE_ORDER)
-                            .distinct()
-                            .forEach(c -> builder.suggest(c, tooltip));
+                    int limit = parameter.getCommandHandler().getAutoCompleter().getSuggestionLimit();
+                    PrefixSuggestionProvider.collect(
+                            parameter.getSuggestionProvider(),
+                            args,
+                            actor,
+                            parameter.getDeclaringCommand(),
+                            args.getLast(),
+                            limit
+                    ).forEach(c -> builder.suggest(c, tooltip));
                 } catch (ArgumentParseException ignore) {}
             } catch (Throwable e) {
                 e.printStackTrace();
@@ -29,10 +29,11 @@ public final class BukkitCommandExecutor implements TabExecutor {
                              @NotNull String[] args) {
         BukkitCommandActor actor = new BukkitActor(sender, handler);
         try {
+            long start = System.nanoTime();
             ArgumentStack arguments = ArgumentStack.parse(args);
             arguments.addFirst(stripNamespace(command.getName()));
 
-            handler.dispatch(actor, arguments);
+            handler.dispatch(actor, arguments, System.nanoTime() - start);
         } catch (Throwable t) {
             handler.getExceptionHandler().handleException(t, actor);
         }
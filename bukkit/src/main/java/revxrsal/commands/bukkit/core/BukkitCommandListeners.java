@@ -24,16 +24,35 @@
 package revxrsal.commands.bukkit.core;
 
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.server.PluginDisableEvent;
 import revxrsal.commands.bukkit.BukkitCommandHandler;
 
 final class BukkitCommandListeners implements Listener {
 
-  private final BukkitCommandHandler handler;
+  private final BukkitHandler handler;
+  private final OnlinePlayerIndex players;
 
-  public BukkitCommandListeners(BukkitCommandHandler handler) {
+  public BukkitCommandListeners(BukkitHandler handler, OnlinePlayerIndex players) {
     this.handler = handler;
+    this.players = players;
+  }
+
+  @EventHandler(priority = EventPriority.LOWEST)
+  public void onPlayerJoin(PlayerJoinEvent event) {
+    players.add(event.getPlayer());
+    OfflinePlayerIndex offlinePlayers = handler.offlinePlayers;
+    if (offlinePlayers != null) {
+      offlinePlayers.add(event.getPlayer().getName(), event.getPlayer().getUniqueId());
+    }
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerQuit(PlayerQuitEvent event) {
+    players.remove(event.getPlayer());
   }
 
   @EventHandler(ignoreCancelled = true)
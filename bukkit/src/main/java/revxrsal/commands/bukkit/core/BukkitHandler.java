@@ -14,7 +14,6 @@ import org.bukkit.command.SimpleCommandMap;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
-import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -22,6 +21,7 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import revxrsal.commands.CommandHandler;
+import revxrsal.commands.autocomplete.PrefixSuggestionProvider;
 import revxrsal.commands.autocomplete.SuggestionProvider;
 import revxrsal.commands.bukkit.BukkitBrigadier;
 import revxrsal.commands.bukkit.BukkitCommandActor;
@@ -32,10 +32,14 @@ import revxrsal.commands.bukkit.brigadier.CommodoreBukkitBrigadier;
 import revxrsal.commands.bukkit.core.EntitySelectorResolver.SelectorSuggestionFactory;
 import revxrsal.commands.bukkit.exception.*;
 import revxrsal.commands.command.CommandCategory;
+import revxrsal.commands.command.CommandParameter;
 import revxrsal.commands.command.ExecutableCommand;
 import revxrsal.commands.core.BaseCommandHandler;
 import revxrsal.commands.core.CommandPath;
 import revxrsal.commands.exception.EnumNotFoundException;
+import revxrsal.commands.process.ResolveResult;
+import revxrsal.commands.process.ResultValueResolver;
+import revxrsal.commands.process.ValueResolver.ValueResolverContext;
 import revxrsal.commands.util.Primitives;
 
 import java.lang.reflect.Constructor;
@@ -44,9 +48,9 @@ import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import static revxrsal.commands.util.Preconditions.notNull;
 
@@ -54,13 +58,44 @@ import static revxrsal.commands.util.Preconditions.notNull;
 public final class BukkitHandler extends BaseCommandHandler implements BukkitCommandHandler {
 
   public static final SuggestionProvider playerSuggestionProvider =
-      (args, sender, command) -> Bukkit.getOnlinePlayers().stream()
-          .filter(player -> !((BukkitCommandActor) sender).isPlayer()
-              || ((BukkitCommandActor) sender).requirePlayer().canSee(player))
-          .map(HumanEntity::getName)
-          .collect(Collectors.toList());
+      (PrefixSuggestionProvider) (args, sender, command, prefix, limit, output) -> {
+        BukkitHandler handler = (BukkitHandler) sender.getCommandHandler();
+        Player viewer = handler.filterHiddenPlayers ? ((BukkitCommandActor) sender).getAsPlayer() : null;
+        int count = 0;
+        for (Player player : handler.players.startingWith(prefix)) {
+          if (count == limit) {
+            break;
+          }
+          if (viewer == null || viewer.canSee(player)) {
+            output.accept(player.getName());
+            count++;
+          }
+        }
+      };
+
+  /**
+   * The most offline players suggested at once. The index may hold every player that ever
+   * joined, so it is never listed in full, whatever the suggestion limit is.
+   */
+  private static final int OFFLINE_PLAYER_SUGGESTIONS = 100;
+
+  public static final SuggestionProvider offlinePlayerSuggestionProvider =
+      (PrefixSuggestionProvider) (args, sender, command, prefix, limit, output) -> {
+        ((PrefixSuggestionProvider) playerSuggestionProvider)
+            .suggest(args, sender, command, prefix, limit, output);
+        BukkitHandler handler = (BukkitHandler) sender.getCommandHandler();
+        OfflinePlayerIndex offlinePlayers = handler.offlinePlayers;
+        if (offlinePlayers != null) {
+          // online players were suggested above, only if the sender can see them
+          offlinePlayers.forEachStartingWith(prefix, Math.min(limit, OFFLINE_PLAYER_SUGGESTIONS),
+              name -> handler.players.get(name) == null, output);
+        }
+      };
 
   private final Plugin plugin;
+  private final OnlinePlayerIndex players = new OnlinePlayerIndex();
+  private volatile boolean filterHiddenPlayers = true;
+  volatile @Nullable OfflinePlayerIndex offlinePlayers;
   private Optional<BukkitBrigadier> brigadier;
   BukkitAudiences bukkitAudiences;
 
@@ -74,63 +109,92 @@ public final class BukkitHandler extends BaseCommandHandler implements BukkitCom
       brigadier = Optional.empty();
     }
     registerSenderResolver(BukkitSenderResolver.INSTANCE);
+    setMainThreadExecutor(task -> {
+      if (Bukkit.isPrimaryThread()) {
+        task.run();
+      } else {
+        Bukkit.getScheduler().runTask(plugin, task);
+      }
+    });
     registerValueResolver(
         Player.class,
-        context -> {
+        (ResultValueResolver<Player>) context -> {
           String value = context.pop();
           if (value.equalsIgnoreCase("self") || value.equalsIgnoreCase("me")) {
-            return ((BukkitCommandActor) context.actor()).requirePlayer();
+            return self(context);
           }
+          Player online = players.get(value);
+          if (online != null) {
+            return ResolveResult.success(online);
+          }
+          CommandParameter parameter = context.parameter();
           if (EntitySelectorResolver.INSTANCE.supportsComplexSelectors()) {
+            List<Entity> entityList;
             try {
-              List<Entity> entityList =
-                  Bukkit.selectEntities(((BukkitActor) context.actor()).getSender(), value);
-              if (entityList.stream().anyMatch(c -> !(c instanceof Player))) {
-                throw new NonPlayerEntitiesException(value);
-              }
-              if (entityList.isEmpty()) {
-                throw new InvalidPlayerException(context.parameter(), value);
-              }
-              if (entityList.size() > 1) {
-                throw new MoreThanOnePlayerException(value);
-              }
-              return (Player) entityList.get(0);
+              entityList = Bukkit.selectEntities(((BukkitActor) context.actor()).getSender(), value);
             } catch (IllegalArgumentException e) {
-              throw new MalformedEntitySelectorException(
-                  context.actor(), value, e.getCause().getMessage());
+              return ResolveResult.failure(() -> new MalformedEntitySelectorException(
+                  context.actor(), value, e.getCause().getMessage()));
             }
+            if (entityList.stream().anyMatch(c -> !(c instanceof Player))) {
+              return ResolveResult.failure(() -> new NonPlayerEntitiesException(value));
+            }
+            if (entityList.isEmpty()) {
+              return ResolveResult.failure(() -> new InvalidPlayerException(parameter, value));
+            }
+            if (entityList.size() > 1) {
+              return ResolveResult.failure(() -> new MoreThanOnePlayerException(value));
+            }
+            // selectors such as @s and @p are relative to the sender
+            return ResolveResult.successForActor((Player) entityList.get(0));
           }
-          Player player = Bukkit.getPlayerExact(value);
-          if (player == null) {
-            throw new InvalidPlayerException(context.parameter(), value);
-          }
-          return player;
+          return ResolveResult.failure(() -> new InvalidPlayerException(parameter, value));
         });
     registerValueResolver(
         OfflinePlayer.class,
-        context -> {
+        (ResultValueResolver<OfflinePlayer>) context -> {
           String value = context.pop();
           if (value.equalsIgnoreCase("self") || value.equalsIgnoreCase("me")) {
-            return ((BukkitCommandActor) context.actor()).requirePlayer();
+            return ResolveResult.widen(self(context));
+          }
+          Player online = players.get(value);
+          if (online != null) {
+            return ResolveResult.success(online);
+          }
+          CommandParameter parameter = context.parameter();
+          OfflinePlayerIndex offlinePlayers = this.offlinePlayers;
+          if (offlinePlayers != null) {
+            UUID uuid = offlinePlayers.get(value);
+            if (uuid != null) {
+              return ResolveResult.success(Bukkit.getOfflinePlayer(uuid));
+            }
+            if (offlinePlayers.isBuilt()) {
+              return ResolveResult.failure(() -> new InvalidPlayerException(parameter, value));
+            }
           }
           OfflinePlayer player = Bukkit.getOfflinePlayer(value);
           if (!player.hasPlayedBefore() && !player.isOnline() && player.getFirstPlayed() == 0L) {
-            throw new InvalidPlayerException(context.parameter(), value);
+            return ResolveResult.failure(() -> new InvalidPlayerException(parameter, value));
           }
-          return player;
+          return ResolveResult.success(player);
         });
     registerValueResolver(
         World.class,
-        context -> {
+        (ResultValueResolver<World>) context -> {
           String value = context.pop();
           if (value.equalsIgnoreCase("self") || value.equalsIgnoreCase("me")) {
-            return ((BukkitCommandActor) context.actor()).requirePlayer().getWorld();
+            Player self = ((BukkitCommandActor) context.actor()).getAsPlayer();
+            if (self == null) {
+              return ResolveResult.failure(SenderNotPlayerException::new);
+            }
+            return ResolveResult.successForActor(self.getWorld());
           }
           World world = Bukkit.getWorld(value);
           if (world == null) {
-            throw new InvalidWorldException(context.parameter(), value);
+            CommandParameter parameter = context.parameter();
+            return ResolveResult.failure(() -> new InvalidWorldException(parameter, value));
           }
-          return world;
+          return ResolveResult.success(world);
         });
     registerValueResolver(
         EntityType.class,
@@ -151,11 +215,12 @@ public final class BukkitHandler extends BaseCommandHandler implements BukkitCom
     registerValueResolverFactory(EntitySelectorResolver.INSTANCE);
 
     getAutoCompleter().registerSuggestion("players", playerSuggestionProvider);
+    getAutoCompleter().registerSuggestion("offlinePlayers", offlinePlayerSuggestionProvider);
     getAutoCompleter().registerSuggestion("worlds",
         SuggestionProvider.map(Bukkit::getWorlds, World::getName));
 
     getAutoCompleter().registerParameterSuggestions(Player.class, "players");
-    getAutoCompleter().registerParameterSuggestions(OfflinePlayer.class, "players");
+    getAutoCompleter().registerParameterSuggestions(OfflinePlayer.class, "offlinePlayers");
     getAutoCompleter().registerParameterSuggestions(World.class, "worlds");
 
     getAutoCompleter().registerSuggestionFactory(SelectorSuggestionFactory.INSTANCE);
@@ -166,20 +231,20 @@ public final class BukkitHandler extends BaseCommandHandler implements BukkitCom
     registerDependency(Logger.class, (Supplier<Logger>) plugin::getLogger);
     registerPermissionReader(BukkitPermissionReader.INSTANCE);
     setExceptionHandler(BukkitExceptionAdapter.INSTANCE);
-    Bukkit.getServer().getPluginManager().registerEvents(new BukkitCommandListeners(this), plugin);
+    Bukkit.getServer().getPluginManager().registerEvents(new BukkitCommandListeners(this, players), plugin);
     enableAdventure(BaseManager.getAdventure());
   }
 
   @Override
   public @NotNull CommandHandler register(@NotNull Object... commands) {
     super.register(commands);
-    for (ExecutableCommand command : executables.values()) {
+    for (ExecutableCommand command : getCommands().values()) {
       if (command.getParent() != null) {
         continue;
       }
       createPluginCommand(command.getName(), command.getDescription(), command.getUsage());
     }
-    for (CommandCategory category : categories.values()) {
+    for (CommandCategory category : getCategories().values()) {
       if (category.getParent() != null) {
         continue;
       }
@@ -209,6 +274,32 @@ public final class BukkitHandler extends BaseCommandHandler implements BukkitCom
     return plugin;
   }
 
+  @Override
+  public @NotNull BukkitCommandHandler filterHiddenPlayers(boolean filter) {
+    filterHiddenPlayers = filter;
+    return this;
+  }
+
+  @Override
+  public @NotNull BukkitCommandHandler enableOfflinePlayerIndex() {
+    if (offlinePlayers == null) {
+      OfflinePlayerIndex index = new OfflinePlayerIndex(plugin.getDataFolder(),
+          getMainThreadExecutor(),
+          task -> Bukkit.getScheduler().runTaskAsynchronously(plugin, task), plugin.getLogger());
+      index.load();
+      offlinePlayers = index;
+    }
+    return this;
+  }
+
+  private static ResolveResult<Player> self(ValueResolverContext context) {
+    Player self = ((BukkitCommandActor) context.actor()).getAsPlayer();
+    if (self == null) {
+      return ResolveResult.failure(SenderNotPlayerException::new);
+    }
+    return ResolveResult.successForActor(self);
+  }
+
   private void enableAdventure(@NotNull BukkitAudiences audiences) {
     notNull(audiences, "audiences");
     bukkitAudiences = audiences;
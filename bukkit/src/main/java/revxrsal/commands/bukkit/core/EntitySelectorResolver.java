@@ -37,6 +37,8 @@ import revxrsal.commands.bukkit.exception.InvalidPlayerException;
 import revxrsal.commands.bukkit.exception.MalformedEntitySelectorException;
 import revxrsal.commands.command.CommandParameter;
 import revxrsal.commands.exception.CommandErrorException;
+import revxrsal.commands.process.ResolveResult;
+import revxrsal.commands.process.ResultValueResolver;
 import revxrsal.commands.process.ValueResolver;
 import revxrsal.commands.process.ValueResolver.ValueResolverContext;
 import revxrsal.commands.process.ValueResolverFactory;
@@ -66,9 +68,9 @@ public enum EntitySelectorResolver implements ValueResolverFactory {
         if (EntitySelector.class.isAssignableFrom(parameter.getType())) {
             Class<?> entityType = (Class<?>) Primitives.getInsideGeneric(parameter.getFullType(), Entity.class);
             if (Player.class.isAssignableFrom(entityType)) {
-                return this::resolvePlayerSelector;
+                return forActor(this::resolvePlayerSelector);
             }
-            return context -> {
+            return forActor(context -> {
                 String selector = context.pop();
                 try {
                     BukkitCommandActor actor = context.actor();
@@ -80,11 +82,25 @@ public enum EntitySelectorResolver implements ValueResolverFactory {
                 } catch (NoSuchMethodError e) {
                     throw new CommandErrorException("Entity selectors on legacy versions are not supported yet!");
                 }
-            };
+            });
         }
         return null;
     }
 
+    /**
+     * Marks the selected entities as depending on the actor, as selectors
+     * such as {@code @s} and {@code @p} are relative to the sender.
+     */
+    private static <T> ResultValueResolver<T> forActor(ValueResolver<T> resolver) {
+        return context -> {
+            try {
+                return ResolveResult.successForActor(resolver.resolve(context));
+            } catch (Throwable t) {
+                return ResolveResult.failure(t);
+            }
+        };
+    }
+
     private EntitySelector<Player> resolvePlayerSelector(ValueResolverContext context) {
         String selector = context.pop().toLowerCase();
         try {
@@ -0,0 +1,604 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.bukkit.core;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An on-disk index of every player that has joined the server, mapping
+ * names to UUIDs.
+ * <p>
+ * The index file holds fixed-size records sorted by lower-cased name and is
+ * memory-mapped, so exact lookups and prefix scans are binary searches over
+ * the mapping rather than over heap objects. It is rebuilt asynchronously
+ * on startup, by merging the players from {@link Bukkit#getOfflinePlayers()},
+ * the server's {@code usercache.json} and a journal of the players that
+ * joined since the last build into the records of the previous index. Only
+ * the players missing from, or changed since, the previous index are held
+ * on the heap. Players that joined since the current mapping was built are
+ * also kept in a small in-memory map.
+ * <p>
+ * Each build is written to a new file, numbered by generation, and mapped
+ * before the previous file is deleted, since a mapped file cannot be
+ * replaced on every platform.
+ * <p>
+ * Only names of up to 16 printable ASCII characters, i.e. every valid
+ * Minecraft name, are indexed.
+ */
+final class OfflinePlayerIndex {
+
+  private static final int MAGIC = 0x4C4F5049;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int NAME_SIZE = 16;
+  private static final int KEY_OFFSET = 0;
+  private static final int NAME_OFFSET = NAME_SIZE;
+  private static final int UUID_OFFSET = NAME_SIZE * 2;
+  private static final int RECORD_SIZE = NAME_SIZE * 2 + 16;
+
+  private static final String INDEX_PREFIX = "offline-players-";
+  private static final String INDEX_SUFFIX = ".idx";
+
+  private final File directory;
+  private final File journalFile;
+  private final Executor main;
+  private final Executor io;
+  private final Logger logger;
+
+  /* Players that joined since the mapped index was built, by lower-cased name */
+  private final ConcurrentSkipListMap<String, Entry> recent = new ConcurrentSkipListMap<>();
+
+  private volatile @Nullable Mapping mapping;
+  private volatile boolean built;
+
+  OfflinePlayerIndex(@NotNull File directory, @NotNull Executor main, @NotNull Executor io,
+      @NotNull Logger logger) {
+    this.directory = directory;
+    this.journalFile = new File(directory, "offline-players.journal");
+    this.main = main;
+    this.io = io;
+    this.logger = logger;
+  }
+
+  /**
+   * Maps the index left by a previous run, if any, then rebuilds it on the
+   * I/O executor from a snapshot of the offline players taken on the main
+   * thread.
+   */
+  void load() {
+    int generation = -1;
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        generation = Math.max(generation, generationOf(file));
+      }
+    }
+    if (generation != -1) {
+      try {
+        mapping = map(generation);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Could not read the offline player index, rebuilding it", e);
+        delete(indexFile(generation));
+      }
+    }
+    // leftovers of builds that could not be deleted, or did not complete
+    if (files != null) {
+      for (File file : files) {
+        int fileGeneration = generationOf(file);
+        if (fileGeneration != -1 && fileGeneration != generation) {
+          delete(file);
+        }
+      }
+    }
+    int next = generation + 1;
+    main.execute(() -> {
+      OfflinePlayer[] players = Bukkit.getOfflinePlayers();
+      io.execute(() -> build(players, next));
+    });
+  }
+
+  /**
+   * Returns whether the index has been built during this run. Until then,
+   * players missing from it may still have joined before.
+   *
+   * @return Whether the index is complete
+   */
+  boolean isBuilt() {
+    return built;
+  }
+
+  /**
+   * Records a player that joined
+   *
+   * @param name The player name
+   * @param uuid The player UUID
+   */
+  void add(@NotNull String name, @NotNull UUID uuid) {
+    if (!isIndexable(name)) {
+      return;
+    }
+    Entry entry = new Entry(name, uuid);
+    Entry previous = recent.put(key(name), entry);
+    if (!entry.equals(previous)) {
+      io.execute(() -> appendJournal(Collections.singletonList(entry)));
+    }
+  }
+
+  /**
+   * Returns the UUID of the player with the given name, ignoring case
+   *
+   * @param name The player name
+   * @return The UUID, or null if no such player is indexed
+   */
+  @Nullable UUID get(@NotNull String name) {
+    if (!isIndexable(name)) {
+      return null;
+    }
+    Entry entry = recent.get(key(name));
+    if (entry != null) {
+      return entry.uuid;
+    }
+    Mapping mapping = this.mapping;
+    if (mapping == null) {
+      return null;
+    }
+    ByteBuffer buffer = mapping.records;
+    byte[] key = key(name).getBytes(US_ASCII);
+    int index = lowerBound(buffer, mapping.size, key);
+    if (index < mapping.size && compare(buffer, index, key, false) == 0) {
+      int offset = index * RECORD_SIZE + UUID_OFFSET;
+      return new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+    }
+    return null;
+  }
+
+  /**
+   * Passes the names starting with the given prefix, ignoring case, that
+   * match the given filter to the given consumer, stopping after
+   * {@code limit} names from each of the mapped index and the recent players.
+   *
+   * @param prefix The name prefix
+   * @param limit  The maximum number of names
+   * @param filter The names to pass
+   * @param output The consumer to pass names to
+   */
+  void forEachStartingWith(@NotNull String prefix, int limit, @NotNull Predicate<String> filter,
+      @NotNull Consumer<String> output) {
+    String lowered = key(prefix);
+    int count = 0;
+    for (Entry entry : recent.tailMap(lowered).values()) {
+      if (count == limit || !key(entry.name).startsWith(lowered)) {
+        break;
+      }
+      if (filter.test(entry.name)) {
+        output.accept(entry.name);
+        count++;
+      }
+    }
+    Mapping mapping = this.mapping;
+    if (mapping == null || !isIndexable(prefix) && !prefix.isEmpty()) {
+      return;
+    }
+    ByteBuffer buffer = mapping.records;
+    byte[] key = lowered.getBytes(US_ASCII);
+    byte[] name = new byte[NAME_SIZE];
+    int total = mapping.size;
+    count = 0;
+    for (int i = lowerBound(buffer, total, key); i < total && count < limit; i++) {
+      if (compare(buffer, i, key, true) != 0) {
+        break;
+      }
+      int offset = i * RECORD_SIZE + NAME_OFFSET;
+      int length = 0;
+      while (length < NAME_SIZE && (name[length] = buffer.get(offset + length)) != 0) {
+        length++;
+      }
+      String value = new String(name, 0, length, US_ASCII);
+      if (filter.test(value)) {
+        output.accept(value);
+        count++;
+      }
+    }
+  }
+
+  private void build(OfflinePlayer[] players, int generation) {
+    try {
+      Mapping previous = this.mapping;
+      // only the players that the previous index lacks, or has with another name or UUID
+      Map<String, Entry> changes = new TreeMap<>();
+      for (OfflinePlayer player : players) {
+        String name = player.getName();
+        if (name != null) {
+          putChanged(changes, previous, name, player.getUniqueId());
+        }
+      }
+      readUserCache(changes, previous);
+      List<Entry> journal = drainJournal();
+      try {
+        for (Entry entry : journal) {
+          putChanged(changes, previous, entry.name, entry.uuid);
+        }
+        write(indexFile(generation), previous, changes);
+        mapping = map(generation);
+      } catch (IOException | RuntimeException e) {
+        // keep the journal for the next build
+        appendJournal(journal);
+        delete(indexFile(generation));
+        throw e;
+      }
+      built = true;
+      if (previous != null) {
+        // readers have moved to the new mapping
+        delete(indexFile(previous.generation));
+      }
+      // players that joined while building are not in the new mapping yet
+      for (Entry entry : journal) {
+        recent.remove(key(entry.name), entry);
+      }
+    } catch (Throwable t) {
+      logger.log(Level.WARNING, "Could not build the offline player index", t);
+    }
+  }
+
+  private void readUserCache(Map<String, Entry> changes, @Nullable Mapping previous) {
+    File userCache = new File(Bukkit.getWorldContainer(), "usercache.json");
+    if (!userCache.isFile()) {
+      return;
+    }
+    try (Reader reader = Files.newBufferedReader(userCache.toPath(), UTF_8)) {
+      for (JsonElement element : new JsonParser().parse(reader).getAsJsonArray()) {
+        JsonObject profile = element.getAsJsonObject();
+        putChanged(changes, previous, profile.get("name").getAsString(),
+            UUID.fromString(profile.get("uuid").getAsString()));
+      }
+    } catch (Exception e) {
+      logger.log(Level.WARNING, "Could not read " + userCache, e);
+    }
+  }
+
+  private void appendJournal(List<Entry> entries) {
+    synchronized (journalFile) {
+      journalFile.getParentFile().mkdirs();
+      try (BufferedWriter writer = Files.newBufferedWriter(journalFile.toPath(), UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        for (Entry entry : entries) {
+          writer.write(entry.uuid + " " + entry.name);
+          writer.newLine();
+        }
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Could not write to the offline player journal", e);
+      }
+    }
+  }
+
+  private List<Entry> drainJournal() throws IOException {
+    List<Entry> journal = new ArrayList<>();
+    synchronized (journalFile) {
+      if (!journalFile.isFile()) {
+        return journal;
+      }
+      try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          int space = line.indexOf(' ');
+          if (space == -1) {
+            continue;
+          }
+          try {
+            journal.add(new Entry(line.substring(space + 1),
+                UUID.fromString(line.substring(0, space))));
+          } catch (IllegalArgumentException ignored) {
+            // a partially written line
+          }
+        }
+      }
+      Files.delete(journalFile.toPath());
+    }
+    return journal;
+  }
+
+  /**
+   * Writes the records of the previous index, with the given changes merged
+   * in, to the given file. Both are already sorted by key, so the records
+   * are streamed from the previous mapping rather than loaded.
+   */
+  private void write(File file, @Nullable Mapping previous, Map<String, Entry> changes)
+      throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create " + directory);
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + RECORD_SIZE * 1024);
+      // the count is filled in once known
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(0);
+      ByteBuffer records = previous == null ? null : previous.records;
+      int total = previous == null ? 0 : previous.size;
+      int index = 0;
+      int count = 0;
+      for (Map.Entry<String, Entry> change : changes.entrySet()) {
+        byte[] key = change.getKey().getBytes(US_ASCII);
+        int compared;
+        while (index < total && (compared = compare(records, index, key, false)) <= 0) {
+          if (compared < 0) {
+            flushIfFull(channel, buffer);
+            copyRecord(records, index, buffer);
+            count++;
+          }
+          // an equal key is replaced by the change
+          index++;
+        }
+        flushIfFull(channel, buffer);
+        putPadded(buffer, key);
+        putPadded(buffer, change.getValue().name.getBytes(US_ASCII));
+        buffer.putLong(change.getValue().uuid.getMostSignificantBits());
+        buffer.putLong(change.getValue().uuid.getLeastSignificantBits());
+        count++;
+      }
+      for (; index < total; index++, count++) {
+        flushIfFull(channel, buffer);
+        copyRecord(records, index, buffer);
+      }
+      // cast, so that this does not link against the covariant overrides added in Java 9
+      ((Buffer) buffer).flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      ByteBuffer header = ByteBuffer.allocate(4).putInt(0, count);
+      while (header.hasRemaining()) {
+        channel.write(header, 8 + header.position());
+      }
+      channel.force(true);
+    }
+  }
+
+  private static void flushIfFull(FileChannel channel, ByteBuffer buffer) throws IOException {
+    if (buffer.remaining() < RECORD_SIZE) {
+      ((Buffer) buffer).flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      ((Buffer) buffer).clear();
+    }
+  }
+
+  private static void copyRecord(ByteBuffer records, int index, ByteBuffer buffer) {
+    int offset = index * RECORD_SIZE;
+    for (int i = 0; i < RECORD_SIZE; i++) {
+      buffer.put(records.get(offset + i));
+    }
+  }
+
+  private Mapping map(int generation) throws IOException {
+    try (FileChannel channel = FileChannel.open(indexFile(generation).toPath(),
+        StandardOpenOption.READ)) {
+      ByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      if (mapped.limit() < HEADER_SIZE || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+        throw new IOException("Unrecognized offline player index format");
+      }
+      int count = mapped.getInt(8);
+      if (count < 0 || (long) count * RECORD_SIZE > mapped.limit() - HEADER_SIZE) {
+        throw new IOException("Truncated offline player index");
+      }
+      ((Buffer) mapped).position(HEADER_SIZE);
+      return new Mapping(mapped.slice(), count, generation);
+    }
+  }
+
+  private File indexFile(int generation) {
+    return new File(directory, INDEX_PREFIX + generation + INDEX_SUFFIX);
+  }
+
+  private void delete(File file) {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      // still mapped on this platform, the next load deletes it
+      logger.log(Level.FINE, "Could not delete " + file, e);
+    }
+  }
+
+  private static int generationOf(File file) {
+    String name = file.getName();
+    if (!name.startsWith(INDEX_PREFIX) || !name.endsWith(INDEX_SUFFIX)) {
+      return -1;
+    }
+    try {
+      int generation = Integer.parseInt(
+          name.substring(INDEX_PREFIX.length(), name.length() - INDEX_SUFFIX.length()));
+      return generation < 0 ? -1 : generation;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static int lowerBound(ByteBuffer buffer, int size, byte[] key) {
+    int low = 0, high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(buffer, mid, key, false) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Compares the key of the record at the given index with the given key,
+   * as unsigned bytes. When {@code prefix} is true, only the first
+   * {@code key.length} bytes are compared.
+   */
+  private static int compare(ByteBuffer buffer, int index, byte[] key, boolean prefix) {
+    int offset = index * RECORD_SIZE + KEY_OFFSET;
+    for (int i = 0; i < NAME_SIZE; i++) {
+      if (prefix && i == key.length) {
+        return 0;
+      }
+      int a = buffer.get(offset + i) & 0xFF;
+      int b = i < key.length ? key[i] & 0xFF : 0;
+      if (a != b) {
+        return a - b;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Puts the given player into the changes, unless the previous index
+   * already has it under the same name and UUID
+   */
+  private static void putChanged(Map<String, Entry> changes, @Nullable Mapping previous,
+      String name, UUID uuid) {
+    if (!isIndexable(name)) {
+      return;
+    }
+    String key = key(name);
+    if (previous != null && !changes.containsKey(key) && previous.contains(key, name, uuid)) {
+      return;
+    }
+    changes.put(key, new Entry(name, uuid));
+  }
+
+  private static void putPadded(ByteBuffer buffer, byte[] bytes) {
+    buffer.put(bytes);
+    for (int i = bytes.length; i < NAME_SIZE; i++) {
+      buffer.put((byte) 0);
+    }
+  }
+
+  private static boolean isIndexable(String name) {
+    int length = name.length();
+    if (length == 0 || length > NAME_SIZE) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = name.charAt(i);
+      if (c <= ' ' || c > '~') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String key(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  private static final class Mapping {
+
+    private final ByteBuffer records;
+    private final int size;
+    private final int generation;
+
+    Mapping(ByteBuffer records, int size, int generation) {
+      this.records = records;
+      this.size = size;
+      this.generation = generation;
+    }
+
+    boolean contains(String key, String name, UUID uuid) {
+      byte[] bytes = key.getBytes(US_ASCII);
+      int index = lowerBound(records, size, bytes);
+      if (index == size || compare(records, index, bytes, false) != 0) {
+        return false;
+      }
+      int offset = index * RECORD_SIZE;
+      if (records.getLong(offset + UUID_OFFSET) != uuid.getMostSignificantBits()
+          || records.getLong(offset + UUID_OFFSET + 8) != uuid.getLeastSignificantBits()) {
+        return false;
+      }
+      byte[] stored = name.getBytes(US_ASCII);
+      for (int i = 0; i < NAME_SIZE; i++) {
+        byte expected = i < stored.length ? stored[i] : 0;
+        if (records.get(offset + NAME_OFFSET + i) != expected) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class Entry {
+
+    private final String name;
+    private final UUID uuid;
+
+    Entry(String name, UUID uuid) {
+      this.name = name;
+      this.uuid = uuid;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry entry = (Entry) o;
+      return name.equals(entry.name) && uuid.equals(entry.uuid);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * name.hashCode() + uuid.hashCode();
+    }
+  }
+}
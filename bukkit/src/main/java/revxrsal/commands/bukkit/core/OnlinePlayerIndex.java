@@ -0,0 +1,90 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.bukkit.core;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An index of online players by their lower-cased name, kept up to date from
+ * join and quit events by {@link BukkitCommandListeners}.
+ * <p>
+ * Names are kept sorted, so the players whose name starts with a prefix are
+ * a contiguous range that can be read without scanning every player. The
+ * index is safe to read from any thread, including asynchronous tab
+ * completion.
+ */
+final class OnlinePlayerIndex {
+
+  private final ConcurrentSkipListMap<String, Player> players = new ConcurrentSkipListMap<>();
+
+  OnlinePlayerIndex() {
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      add(player);
+    }
+  }
+
+  void add(@NotNull Player player) {
+    players.put(key(player.getName()), player);
+  }
+
+  void remove(@NotNull Player player) {
+    // only remove this exact player, in case a newer session took its place
+    players.remove(key(player.getName()), player);
+  }
+
+  /**
+   * Returns the online player with the given name, ignoring case
+   *
+   * @param name The player name
+   * @return The player, or null if no such player is online
+   */
+  @Nullable Player get(@NotNull String name) {
+    return players.get(key(name));
+  }
+
+  /**
+   * Returns a live view of the online players whose name starts with the
+   * given prefix, ignoring case, in name order.
+   *
+   * @param prefix The name prefix
+   * @return The matching players
+   */
+  @NotNull Collection<Player> startingWith(@NotNull String prefix) {
+    if (prefix.isEmpty()) {
+      return players.values();
+    }
+    String from = key(prefix);
+    return players.subMap(from, true, from + Character.MAX_VALUE, false).values();
+  }
+
+  private static String key(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+}
@@ -28,6 +28,7 @@ import lombok.Getter;
 import revxrsal.commands.bukkit.EntitySelector;
 import revxrsal.commands.command.CommandActor;
 import revxrsal.commands.exception.ThrowableFromCommand;
+import revxrsal.commands.exception.UserErrorException;
 
 /**
  * Thrown when a malformed {@link EntitySelector} is inputted for a command.
@@ -35,7 +36,7 @@ import revxrsal.commands.exception.ThrowableFromCommand;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class MalformedEntitySelectorException extends RuntimeException {
+public class MalformedEntitySelectorException extends UserErrorException {
 
   /**
    * The command actor
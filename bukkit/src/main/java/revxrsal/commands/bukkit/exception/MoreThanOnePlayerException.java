@@ -26,6 +26,7 @@ package revxrsal.commands.bukkit.exception;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import revxrsal.commands.exception.ThrowableFromCommand;
+import revxrsal.commands.exception.UserErrorException;
 
 /**
  * Thrown when a {@link org.bukkit.entity.Player} selector contains more than 1 player entities
@@ -34,7 +35,7 @@ import revxrsal.commands.exception.ThrowableFromCommand;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class MoreThanOnePlayerException extends RuntimeException {
+public class MoreThanOnePlayerException extends UserErrorException {
 
   /**
    * The inputted value for the selector
@@ -26,6 +26,7 @@ package revxrsal.commands.bukkit.exception;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import revxrsal.commands.exception.ThrowableFromCommand;
+import revxrsal.commands.exception.UserErrorException;
 
 /**
  * Thrown when a {@link org.bukkit.entity.Player} selector contains non-player entities (e.g.
@@ -35,7 +36,7 @@ import revxrsal.commands.exception.ThrowableFromCommand;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class NonPlayerEntitiesException extends RuntimeException {
+public class NonPlayerEntitiesException extends UserErrorException {
 
   /**
    * The inputted value for the selector
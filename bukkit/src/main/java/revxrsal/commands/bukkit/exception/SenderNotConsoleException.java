@@ -3,6 +3,7 @@ package revxrsal.commands.bukkit.exception;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import revxrsal.commands.exception.ThrowableFromCommand;
+import revxrsal.commands.exception.UserErrorException;
 
 /**
  * Thrown when a console-only command is executed by a non-console
@@ -10,6 +11,6 @@ import revxrsal.commands.exception.ThrowableFromCommand;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class SenderNotConsoleException extends RuntimeException {
+public class SenderNotConsoleException extends UserErrorException {
 
 }
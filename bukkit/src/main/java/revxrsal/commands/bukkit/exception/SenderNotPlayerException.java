@@ -3,6 +3,7 @@ package revxrsal.commands.bukkit.exception;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import revxrsal.commands.exception.ThrowableFromCommand;
+import revxrsal.commands.exception.UserErrorException;
 
 /**
  * Thrown when a player-only command is executed by a non-player
@@ -10,6 +11,6 @@ import revxrsal.commands.exception.ThrowableFromCommand;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class SenderNotPlayerException extends RuntimeException {
+public class SenderNotPlayerException extends UserErrorException {
 
 }
@@ -29,13 +29,17 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 import org.jetbrains.annotations.UnmodifiableView;
+import revxrsal.commands.annotation.Cached;
 import revxrsal.commands.annotation.Dependency;
 import revxrsal.commands.annotation.Flag;
+import revxrsal.commands.annotation.RunAsync;
 import revxrsal.commands.annotation.Switch;
 import revxrsal.commands.annotation.dynamic.AnnotationReplacer;
 import revxrsal.commands.annotation.dynamic.Annotations;
@@ -43,19 +47,26 @@ import revxrsal.commands.autocomplete.AutoCompleter;
 import revxrsal.commands.command.ArgumentStack;
 import revxrsal.commands.command.CommandActor;
 import revxrsal.commands.command.CommandCategory;
+import revxrsal.commands.command.CommandParameter;
 import revxrsal.commands.command.CommandPermission;
 import revxrsal.commands.command.ExecutableCommand;
 import revxrsal.commands.core.CommandPath;
 import revxrsal.commands.core.reflect.MethodCallerFactory;
 import revxrsal.commands.exception.CommandExceptionHandler;
 import revxrsal.commands.exception.TooManyArgumentsException;
+import revxrsal.commands.exception.UserErrorException;
 import revxrsal.commands.help.CommandHelp;
 import revxrsal.commands.help.CommandHelpWriter;
+import revxrsal.commands.process.AsyncExecutor;
+import revxrsal.commands.process.CachedValueResolver;
 import revxrsal.commands.process.CommandCondition;
+import revxrsal.commands.process.CommandMetrics;
 import revxrsal.commands.process.ContextResolver;
 import revxrsal.commands.process.ContextResolverFactory;
+import revxrsal.commands.process.CooldownStore;
 import revxrsal.commands.process.ParameterNamingStrategy;
 import revxrsal.commands.process.ParameterValidator;
+import revxrsal.commands.process.ParameterValidatorFactory;
 import revxrsal.commands.process.PermissionReader;
 import revxrsal.commands.process.ResponseHandler;
 import revxrsal.commands.process.SenderResolver;
@@ -111,6 +122,48 @@ public interface CommandHandler {
      */
     @NotNull CommandHandler setMethodCallerFactory(@NotNull MethodCallerFactory factory);
 
+    /**
+     * Sets the {@link CooldownStore} that keeps track of the cooldowns of
+     * commands annotated with {@link revxrsal.commands.annotation.Cooldown}.
+     *
+     * @param store Store to set
+     * @return This command handler
+     * @see CooldownStore#striped()
+     */
+    @NotNull CommandHandler setCooldownStore(@NotNull CooldownStore store);
+
+    /**
+     * Sets the {@link CommandMetrics} that records the latency and errors of
+     * every dispatched command. Use {@link CommandMetrics#disabled()} to turn
+     * recording off.
+     *
+     * @param metrics Metrics to set
+     * @return This command handler
+     * @see CommandMetrics#histograms()
+     */
+    @NotNull CommandHandler setCommandMetrics(@NotNull CommandMetrics metrics);
+
+    /**
+     * Sets the executor that runs the resolution and validation of commands
+     * annotated with {@link RunAsync}. By default, this is
+     * {@link AsyncExecutor#virtualThreads()}.
+     *
+     * @param executor Executor to set
+     * @return This command handler
+     * @see AsyncExecutor
+     */
+    @NotNull CommandHandler setAsyncExecutor(@NotNull Executor executor);
+
+    /**
+     * Sets the executor that hands the invocation of {@link RunAsync} commands
+     * back to the platform's main thread. By default, this runs tasks
+     * directly on the calling thread.
+     *
+     * @param executor Executor to set
+     * @return This command handler
+     */
+    @NotNull CommandHandler setMainThreadExecutor(@NotNull Executor executor);
+
     /**
      * Sets the {@link CommandExceptionHandler} to use for handling any exceptions
      * that are thrown from the command.
@@ -195,6 +248,20 @@ public interface CommandHandler {
      */
     @NotNull CommandHandler disableStackTraceSanitizing();
 
+    /**
+     * Creates exceptions caused by the command sender, such as invalid
+     * arguments or missing permissions, without a stack trace. This makes
+     * rejecting bad input about as cheap as a successful dispatch, and such
+     * exceptions will not be sanitized.
+     * <p>
+     * This only applies to exceptions created while this handler dispatches
+     * a command, so other handlers are not affected.
+     *
+     * @return This command handler
+     * @see UserErrorException
+     */
+    @NotNull CommandHandler disableUserErrorStackTraces();
+
     /**
      * Sets the command to fail when too many arguments are specified
      * in the command.
@@ -399,6 +466,17 @@ public interface CommandHandler {
      */
     @NotNull <T> CommandHandler registerParameterValidator(@NotNull Class<T> type, @NotNull ParameterValidator<T> validator);
 
+    /**
+     * Registers a {@link ParameterValidatorFactory} to this handler. Factories are
+     * invoked once for every parameter when its command is registered.
+     *
+     * @param factory Factory to register
+     * @return This command handler
+     * @see ParameterValidatorFactory
+     * @see #registerParameterValidator(Class, ParameterValidator)
+     */
+    @NotNull CommandHandler registerParameterValidatorFactory(@NotNull ParameterValidatorFactory factory);
+
     /**
      * Registers a response handler for the specified response type. Response handlers
      * do post-handling with results returned from command methods.
@@ -464,6 +542,9 @@ public interface CommandHandler {
     /**
      * Returns an unmodifiable view of all the registered commands
      * in this command handler.
+     * <p>
+     * This is a consistent snapshot, which is safe to read from any thread.
+     * It does not reflect commands registered or unregistered afterwards.
      *
      * @return The registered commands
      */
@@ -472,6 +553,9 @@ public interface CommandHandler {
     /**
      * Returns an unmodifiable view of all the registered categories
      * in this command handler.
+     * <p>
+     * This is a consistent snapshot, which is safe to read from any thread.
+     * It does not reflect categories registered or unregistered afterwards.
      *
      * @return The registered categories
      */
@@ -492,6 +576,60 @@ public interface CommandHandler {
      */
     @NotNull MethodCallerFactory getMethodCallerFactory();
 
+    /**
+     * Returns the {@link CooldownStore} that keeps track of command cooldowns
+     *
+     * @return The cooldown store
+     */
+    @NotNull CooldownStore getCooldownStore();
+
+    /**
+     * Returns the {@link CommandMetrics} that records command latencies and
+     * errors
+     *
+     * @return The command metrics
+     */
+    @NotNull CommandMetrics getCommandMetrics();
+
+    /**
+     * Returns the {@link CachedValueResolver} that resolves the given
+     * parameter, such as the one created for a parameter annotated with
+     * {@link Cached}. This can be used to read the cache statistics, or to
+     * invalidate the cache when the underlying data changes.
+     *
+     * @param parameter The parameter to look up
+     * @param <T>       The resolved type
+     * @return The cache, or null if the parameter is not cached
+     * @see #getCachedResolvers()
+     */
+    <T> @Nullable CachedValueResolver<T> getCachedResolver(@NotNull CommandParameter parameter);
+
+    /**
+     * Returns the {@link CachedValueResolver}s of all the parameters of the
+     * registered commands, including flags.
+     *
+     * @return The caches, by parameter
+     * @see #getCachedResolver(CommandParameter)
+     */
+    @NotNull @Unmodifiable Map<CommandParameter, CachedValueResolver<?>> getCachedResolvers();
+
+    /**
+     * Returns the executor that runs the resolution and validation of commands
+     * annotated with {@link RunAsync}.
+     *
+     * @return The async executor
+     * @see #setAsyncExecutor(Executor)
+     */
+    @NotNull Executor getAsyncExecutor();
+
+    /**
+     * Returns the executor that runs tasks on the platform's main thread
+     *
+     * @return The main thread executor
+     * @see #setMainThreadExecutor(Executor)
+     */
+    @NotNull Executor getMainThreadExecutor();
+
     /**
      * Returns the {@link CommandHelpWriter} of this command handler. This can
      * be null if no writer is registered.
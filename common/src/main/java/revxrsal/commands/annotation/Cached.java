@@ -0,0 +1,81 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+import revxrsal.commands.process.CachedValueResolver;
+
+/**
+ * Caches the values resolved for this parameter, so that the same input is only resolved once
+ * in the given duration. This is useful for resolvers that are expensive, such as ones that look
+ * up a database.
+ * <p>
+ * Only values resolved from a single argument are cached, and failures are never cached. The
+ * cache of a parameter can be retrieved with
+ * {@link revxrsal.commands.CommandHandler#getCachedResolver(revxrsal.commands.command.CommandParameter)}
+ * to read its statistics or invalidate it.
+ *
+ * @see CachedValueResolver
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Cached {
+
+  /**
+   * How long a resolved value is kept
+   *
+   * @return The time to keep resolved values for
+   */
+  long expireAfter() default 30;
+
+  /**
+   * The time unit of {@link #expireAfter()}
+   *
+   * @return The time unit
+   */
+  TimeUnit unit() default TimeUnit.SECONDS;
+
+  /**
+   * The maximum number of values kept. When exceeded, the least recently used value is removed.
+   *
+   * @return The maximum cache size
+   */
+  int maximumSize() default 256;
+
+  /**
+   * Whether values are cached separately for each actor. This should be enabled when the
+   * resolved value depends on who executes the command.
+   * <p>
+   * Otherwise, values that the resolver reports as depending on the actor, such as {@code me},
+   * are not cached.
+   *
+   * @return If the cache is scoped to actors
+   */
+  boolean perActor() default false;
+
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import revxrsal.commands.CommandHandler;
+
+/**
+ * Marks a command to be dispatched asynchronously. Conditions, argument
+ * resolution and validation run on the handler's
+ * {@link CommandHandler#getAsyncExecutor() async executor}, and the command
+ * method is then handed back to the
+ * {@link CommandHandler#getMainThreadExecutor() main thread executor}.
+ * <p>
+ * Resolvers, conditions and validators of such commands must be safe to call
+ * off the main thread. Because the result is not available when dispatching
+ * returns, {@link CommandHandler#dispatch} returns an empty optional for
+ * asynchronous commands.
+ */
+@DistributeOnMethods
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RunAsync {
+
+  /**
+   * Whether the command method itself should be invoked on the main thread.
+   * <p>
+   * Set this to false for commands that do not touch any thread-confined
+   * platform state, so that they never wait for the main thread at all.
+   *
+   * @return Whether to invoke the command on the main thread
+   */
+  boolean mainThread() default true;
+
+}
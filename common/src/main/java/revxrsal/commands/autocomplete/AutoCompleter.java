@@ -154,6 +154,32 @@ public interface AutoCompleter {
      */
     void filterToClosestInput(boolean filterToClosestInput);
 
+    /**
+     * Sets the maximum number of suggestions returned for a parameter. This
+     * limit is passed down to {@link PrefixSuggestionProvider}s, so they can
+     * stop early.
+     * <p>
+     * By default, there is no limit.
+     *
+     * @param limit The maximum number of suggestions
+     * @return This auto-completer
+     * @throws UnsupportedOperationException if this auto-completer does not
+     *                                       support limiting suggestions
+     */
+    default AutoCompleter setSuggestionLimit(int limit) {
+        throw new UnsupportedOperationException("This auto-completer does not support suggestion limits");
+    }
+
+    /**
+     * Returns the maximum number of suggestions returned for a parameter
+     *
+     * @return The suggestion limit
+     * @see #setSuggestionLimit(int)
+     */
+    default int getSuggestionLimit() {
+        return Integer.MAX_VALUE;
+    }
+
     /**
      * Returns the containing {@link CommandHandler} of this auto completer.
      * This will allow for writing fluent and readable code.
@@ -0,0 +1,168 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.command.CommandActor;
+import revxrsal.commands.command.ExecutableCommand;
+
+/**
+ * A {@link SuggestionProvider} that is given the prefix being completed and
+ * the maximum number of suggestions wanted, so that it can avoid producing
+ * suggestions that would be thrown away, for example by passing them on to a
+ * database query.
+ * <p>
+ * Suggestions are streamed to a consumer rather than returned as a
+ * collection. Any {@link SuggestionProvider} can be used where one of these
+ * is expected through {@link #adapt(SuggestionProvider)}.
+ */
+@FunctionalInterface
+public interface PrefixSuggestionProvider extends SuggestionProvider {
+
+  /**
+   * Streams the suggestions that start with the given prefix, ignoring case,
+   * to the given consumer.
+   * <p>
+   * Implementations should stop after {@code limit} suggestions. Suggestions
+   * do not need to be sorted or distinct; the caller takes care of that, and
+   * drops any suggestions beyond the limit or not matching the prefix.
+   *
+   * @param args    The command arguments
+   * @param sender  The command sender
+   * @param command The handled command
+   * @param prefix  The prefix being completed. Empty if every suggestion is
+   *                wanted
+   * @param limit   The maximum number of suggestions wanted
+   * @param output  The consumer to pass suggestions to
+   */
+  void suggest(@NotNull List<String> args,
+      @NotNull CommandActor sender,
+      @NotNull ExecutableCommand command,
+      @NotNull String prefix,
+      int limit,
+      @NotNull Consumer<String> output) throws Throwable;
+
+  /**
+   * Returns every suggestion, as if completing an empty prefix with no limit.
+   */
+  @Override
+  default @NotNull Collection<String> getSuggestions(@NotNull List<String> args,
+      @NotNull CommandActor sender,
+      @NotNull ExecutableCommand command) throws Throwable {
+    List<String> suggestions = new ArrayList<>();
+    suggest(args, sender, command, "", Integer.MAX_VALUE, suggestions::add);
+    return suggestions;
+  }
+
+  /**
+   * Composes the two providers into one that streams the suggestions of
+   * both, while still pushing the prefix and limit down to each.
+   *
+   * @param other Other provider to merge with
+   * @return The new provider
+   */
+  @Override
+  @Contract("null -> this; !null -> new")
+  default SuggestionProvider compose(@Nullable SuggestionProvider other) {
+    if (other == null || other == EMPTY) {
+      return this;
+    }
+    PrefixSuggestionProvider second = adapt(other);
+    return (PrefixSuggestionProvider) (args, sender, command, prefix, limit, output) -> {
+      suggest(args, sender, command, prefix, limit, output);
+      second.suggest(args, sender, command, prefix, limit, output);
+    };
+  }
+
+  /**
+   * Adapts the given provider to a {@link PrefixSuggestionProvider}. Providers
+   * that are not prefix-aware have their suggestions filtered, sorted and
+   * capped after they are computed.
+   *
+   * @param provider Provider to adapt
+   * @return The prefix-aware provider
+   */
+  static @NotNull PrefixSuggestionProvider adapt(@NotNull SuggestionProvider provider) {
+    if (provider instanceof PrefixSuggestionProvider) {
+      return (PrefixSuggestionProvider) provider;
+    }
+    return (args, sender, command, prefix, limit, output) -> {
+      String key = prefix.toLowerCase();
+      provider.getSuggestions(args, sender, command)
+          .stream()
+          .filter(c -> c.toLowerCase().startsWith(key))
+          .sorted(String.CASE_INSENSITIVE_ORDER)
+          .distinct()
+          .limit(limit)
+          .forEach(output);
+    };
+  }
+
+  /**
+   * Collects the suggestions of the given provider that start with the given
+   * prefix, ignoring case, sorted, without duplicates and capped at
+   * {@code limit}. The cap keeps the first suggestions in sorted order, not
+   * the first ones the provider produced.
+   *
+   * @param provider The provider
+   * @param args     The command arguments
+   * @param sender   The command sender
+   * @param command  The handled command
+   * @param prefix   The prefix being completed
+   * @param limit    The maximum number of suggestions
+   * @return A new, mutable list of suggestions
+   */
+  static @NotNull List<String> collect(@NotNull SuggestionProvider provider,
+      @NotNull List<String> args,
+      @NotNull CommandActor sender,
+      @NotNull ExecutableCommand command,
+      @NotNull String prefix,
+      int limit) throws Throwable {
+    if (provider instanceof StaticSuggestionProvider) {
+      List<String> matches = ((StaticSuggestionProvider) provider).startingWith(prefix);
+      return new ArrayList<>(matches.size() > limit ? matches.subList(0, limit) : matches);
+    }
+    String key = prefix.toLowerCase();
+    // keeps the first suggestions in order rather than the first to arrive, as composed
+    // providers stream the suggestions of each provider one after the other. suggestions
+    // that only differ in case are still told apart.
+    TreeSet<String> suggestions = new TreeSet<>(
+        String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder()));
+    adapt(provider).suggest(args, sender, command, prefix, limit, suggestion -> {
+      if (suggestion.toLowerCase().startsWith(key) && suggestions.add(suggestion)
+          && suggestions.size() > limit) {
+        suggestions.pollLast();
+      }
+    });
+    return new ArrayList<>(suggestions);
+  }
+}
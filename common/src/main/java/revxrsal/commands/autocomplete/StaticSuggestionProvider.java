@@ -0,0 +1,159 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import revxrsal.commands.command.CommandActor;
+import revxrsal.commands.command.ExecutableCommand;
+
+/**
+ * A {@link SuggestionProvider} over a fixed set of values.
+ * <p>
+ * The values are deduplicated and sorted once, alongside a case-folded copy
+ * of each, so that the suggestions starting with a prefix are found with a
+ * binary search and returned as a view, instead of filtering and sorting the
+ * whole set on every completion.
+ *
+ * @see SuggestionProvider#sorted(Collection)
+ */
+public final class StaticSuggestionProvider implements PrefixSuggestionProvider {
+
+  private final String[] values;
+  private final String[] keys;
+  private final List<String> view;
+
+  /**
+   * Creates a new provider over a copy of the given values
+   *
+   * @param values Values to suggest
+   */
+  public StaticSuggestionProvider(@NotNull Collection<String> values) {
+    List<String> sorted = new ArrayList<>(values);
+    // sort by the case-folded key, so that every prefix maps to a contiguous range
+    sorted.sort((a, b) -> {
+      int result = a.toLowerCase().compareTo(b.toLowerCase());
+      return result != 0 ? result : a.compareTo(b);
+    });
+    int size = 0;
+    String[] array = new String[sorted.size()];
+    for (String value : sorted) {
+      if (size == 0 || !array[size - 1].equals(value)) {
+        array[size++] = value;
+      }
+    }
+    this.values = Arrays.copyOf(array, size);
+    this.keys = new String[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = this.values[i].toLowerCase();
+    }
+    this.view = Collections.unmodifiableList(Arrays.asList(this.values));
+  }
+
+  @Override
+  public @NotNull Collection<String> getSuggestions(@NotNull List<String> args,
+      @NotNull CommandActor sender, @NotNull ExecutableCommand command) {
+    return view;
+  }
+
+  @Override
+  public void suggest(@NotNull List<String> args, @NotNull CommandActor sender,
+      @NotNull ExecutableCommand command, @NotNull String prefix, int limit,
+      @NotNull Consumer<String> output) {
+    List<String> matches = startingWith(prefix);
+    for (int i = 0, size = Math.min(limit, matches.size()); i < size; i++) {
+      output.accept(matches.get(i));
+    }
+  }
+
+  @Override
+  public SuggestionProvider compose(@Nullable SuggestionProvider other) {
+    if (other instanceof StaticSuggestionProvider) {
+      return merge((StaticSuggestionProvider) other);
+    }
+    return PrefixSuggestionProvider.super.compose(other);
+  }
+
+  /**
+   * Returns all the suggestions, sorted and without duplicates
+   *
+   * @return All suggestions
+   */
+  public @NotNull @Unmodifiable List<String> suggestions() {
+    return view;
+  }
+
+  /**
+   * Returns the suggestions that start with the given prefix, ignoring case.
+   *
+   * @param prefix The prefix to match
+   * @return A sorted view of the matching suggestions
+   */
+  public @NotNull @Unmodifiable List<String> startingWith(@NotNull String prefix) {
+    if (prefix.isEmpty()) {
+      return view;
+    }
+    String key = prefix.toLowerCase();
+    int from = firstNotBelow(key);
+    int to = from;
+    int high = keys.length;
+    // the keys starting with the prefix are exactly the ones in [from, to)
+    while (to < high) {
+      int mid = (to + high) >>> 1;
+      if (keys[mid].startsWith(key)) {
+        to = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return view.subList(from, to);
+  }
+
+  private int firstNotBelow(String key) {
+    int low = 0, high = keys.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (keys[mid].compareTo(key) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private @NotNull StaticSuggestionProvider merge(@NotNull StaticSuggestionProvider other) {
+    List<String> merged = new ArrayList<>(values.length + other.values.length);
+    Collections.addAll(merged, values);
+    Collections.addAll(merged, other.values);
+    return new StaticSuggestionProvider(merged);
+  }
+}
@@ -93,7 +93,10 @@ public interface SuggestionProvider {
   }
 
   /**
-   * Returns a {@link SuggestionProvider} that always returns the given values
+   * Returns a {@link SuggestionProvider} that always returns the given values.
+   * <p>
+   * The collection is read on every completion, so changes to it are
+   * reflected. Use {@link #sorted(Collection)} for values that never change.
    *
    * @param suggestions Values to return.
    * @return The provider
@@ -105,6 +108,23 @@ public interface SuggestionProvider {
     return (args, sender, command) -> suggestions;
   }
 
+  /**
+   * Returns a {@link SuggestionProvider} over a snapshot of the given values.
+   * <p>
+   * The values are copied and indexed once, which makes completions faster,
+   * but later changes to the collection are not reflected.
+   *
+   * @param suggestions Values to return.
+   * @return The provider
+   * @see StaticSuggestionProvider
+   */
+  static SuggestionProvider sorted(@Nullable Collection<String> suggestions) {
+    if (suggestions == null) {
+      return EMPTY;
+    }
+    return new StaticSuggestionProvider(suggestions);
+  }
+
   /**
    * Returns a {@link SuggestionProvider} that always returns the given values
    *
@@ -115,8 +135,7 @@ public interface SuggestionProvider {
     if (suggestions == null) {
       return EMPTY;
     }
-    List<String> values = listOf(suggestions);
-    return (args, sender, command) -> values;
+    return new StaticSuggestionProvider(listOf(suggestions));
   }
 
   /**
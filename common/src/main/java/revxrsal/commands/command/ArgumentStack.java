@@ -27,7 +27,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 import org.jetbrains.annotations.UnmodifiableView;
 import revxrsal.commands.autocomplete.AutoCompleter;
-import revxrsal.commands.core.LinkedArgumentStack;
+import revxrsal.commands.core.ArrayArgumentStack;
 import revxrsal.commands.util.QuotedStringTokenizer;
 
 import java.util.Collection;
@@ -37,8 +37,9 @@ import java.util.List;
 /**
  * Represents a mutable stack of strings represented as command arguments.
  * <p>
- * This class holds extremely similar functionality to a LinkedList, and in
- * most contexts should be safely castable to one.
+ * This class holds extremely similar functionality to a LinkedList. Stacks created
+ * by the factory methods in this interface are backed by an array instead, and
+ * hence should not be cast to one.
  */
 public interface ArgumentStack extends Deque<String>, List<String>, Cloneable {
 
@@ -110,7 +111,7 @@ public interface ArgumentStack extends Deque<String>, List<String>, Cloneable {
      */
     static @NotNull ArgumentStack parse(@NotNull String... arguments) {
         if (arguments.length == 0) return empty();
-        return new LinkedArgumentStack(QuotedStringTokenizer.parse(String.join(" ", arguments)));
+        return QuotedStringTokenizer.parse(arguments);
     }
 
     /**
@@ -123,7 +124,7 @@ public interface ArgumentStack extends Deque<String>, List<String>, Cloneable {
      */
     static @NotNull ArgumentStack parse(@NotNull Collection<String> arguments) {
         if (arguments.size() == 0) return empty();
-        return new LinkedArgumentStack(QuotedStringTokenizer.parse(String.join(" ", arguments)));
+        return QuotedStringTokenizer.parse(String.join(" ", arguments));
     }
 
     /**
@@ -137,7 +138,7 @@ public interface ArgumentStack extends Deque<String>, List<String>, Cloneable {
      * @return The newly created argument stack.
      */
     static @NotNull ArgumentStack parseForAutoCompletion(@NotNull String... arguments) {
-        return new LinkedArgumentStack(QuotedStringTokenizer.parseForAutoCompletion(String.join(" ", arguments)));
+        return QuotedStringTokenizer.parseForAutoCompletion(arguments);
     }
 
     /**
@@ -151,7 +152,7 @@ public interface ArgumentStack extends Deque<String>, List<String>, Cloneable {
      * @return The newly created argument stack.
      */
     static @NotNull ArgumentStack parseForAutoCompletion(@NotNull Collection<String> arguments) {
-        return new LinkedArgumentStack(QuotedStringTokenizer.parseForAutoCompletion(String.join(" ", arguments)));
+        return QuotedStringTokenizer.parseForAutoCompletion(String.join(" ", arguments));
     }
 
     /**
@@ -163,7 +164,7 @@ public interface ArgumentStack extends Deque<String>, List<String>, Cloneable {
      */
     static @NotNull ArgumentStack copyExact(@NotNull String... arguments) {
         if (arguments.length == 0) return empty();
-        return new LinkedArgumentStack(arguments);
+        return new ArrayArgumentStack(arguments);
     }
 
     /**
@@ -175,7 +176,7 @@ public interface ArgumentStack extends Deque<String>, List<String>, Cloneable {
      */
     static @NotNull ArgumentStack copyExact(@NotNull List<String> arguments) {
         if (arguments.size() == 0) return empty();
-        return new LinkedArgumentStack(arguments);
+        return new ArrayArgumentStack(arguments);
     }
 
     /**
@@ -184,7 +185,7 @@ public interface ArgumentStack extends Deque<String>, List<String>, Cloneable {
      * @return A new, empty argument stack
      */
     static @NotNull ArgumentStack empty() {
-        return new LinkedArgumentStack();
+        return new ArrayArgumentStack();
     }
 
 }
\ No newline at end of file
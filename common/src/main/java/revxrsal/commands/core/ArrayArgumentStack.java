@@ -0,0 +1,443 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.StringJoiner;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+import org.jetbrains.annotations.UnmodifiableView;
+import revxrsal.commands.command.ArgumentStack;
+import revxrsal.commands.command.CommandParameter;
+
+/**
+ * An {@link ArgumentStack} backed by a single {@code String[]} and a head index.
+ * <p>
+ * Popping from the front only moves the head forward, and pushing to the front reuses the slots
+ * freed by previous pops, so the usual dispatch pattern (pop arguments, push default values back)
+ * does not allocate per token.
+ */
+public final class ArrayArgumentStack extends AbstractList<String> implements ArgumentStack {
+
+  private static final String[] EMPTY = new String[0];
+  private static final int DEFAULT_CAPACITY = 8;
+
+  private String[] elements;
+  private int head, tail;
+
+  public ArrayArgumentStack() {
+    elements = EMPTY;
+  }
+
+  public ArrayArgumentStack(@NotNull Collection<? extends String> c) {
+    elements = c.toArray(EMPTY);
+    tail = elements.length;
+  }
+
+  public ArrayArgumentStack(@NotNull String... c) {
+    this(c, 0, c.length);
+  }
+
+  /**
+   * Creates a stack that holds the given range of the array. The array is copied.
+   *
+   * @param c    The array to copy from
+   * @param from The start index, inclusive
+   * @param to   The end index, exclusive
+   */
+  public ArrayArgumentStack(@NotNull String[] c, int from, int to) {
+    elements = Arrays.copyOfRange(c, from, to);
+    tail = elements.length;
+  }
+
+  private final List<String> unmodifiableView = Collections.unmodifiableList(this);
+
+  /* List */
+
+  @Override
+  public String get(int index) {
+    checkIndex(index);
+    return elements[head + index];
+  }
+
+  @Override
+  public String set(int index, String element) {
+    checkIndex(index);
+    String old = elements[head + index];
+    elements[head + index] = element;
+    return old;
+  }
+
+  @Override
+  public int size() {
+    return tail - head;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return head == tail;
+  }
+
+  @Override
+  public boolean add(String s) {
+    addLast(s);
+    return true;
+  }
+
+  @Override
+  public void add(int index, String element) {
+    if (index < 0 || index > size()) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+    if (index == 0) {
+      addFirst(element);
+      return;
+    }
+    ensureTailCapacity(1);
+    int at = head + index;
+    System.arraycopy(elements, at, elements, at + 1, tail - at);
+    elements[at] = element;
+    tail++;
+    modCount++;
+  }
+
+  @Override
+  public boolean addAll(@NotNull Collection<? extends String> c) {
+    // copied first, as the collection may be this stack itself
+    Object[] added = c.toArray();
+    int count = added.length;
+    if (count == 0) {
+      return false;
+    }
+    ensureTailCapacity(count);
+    System.arraycopy(added, 0, elements, tail, count);
+    tail += count;
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public String remove(int index) {
+    checkIndex(index);
+    if (index == 0) {
+      return removeFirst();
+    }
+    int at = head + index;
+    String old = elements[at];
+    System.arraycopy(elements, at + 1, elements, at, tail - at - 1);
+    elements[--tail] = null;
+    modCount++;
+    return old;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    int index = indexOf(o);
+    if (index == -1) {
+      return false;
+    }
+    remove(index);
+    return true;
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    for (int i = head; i < tail; i++) {
+      if (Objects.equals(o, elements[i])) {
+        return i - head;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    for (int i = tail - 1; i >= head; i--) {
+      if (Objects.equals(o, elements[i])) {
+        return i - head;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(elements, head, tail, null);
+    head = tail = 0;
+    modCount++;
+  }
+
+  @Override
+  public @NotNull Object[] toArray() {
+    return Arrays.copyOfRange(elements, head, tail, Object[].class);
+  }
+
+  /* Deque */
+
+  @Override
+  public void addFirst(String s) {
+    if (head == 0) {
+      int size = size();
+      int room = Math.max(DEFAULT_CAPACITY, size);
+      String[] grown = new String[room + elements.length];
+      System.arraycopy(elements, head, grown, room, size);
+      elements = grown;
+      head = room;
+      tail = room + size;
+    }
+    elements[--head] = s;
+    modCount++;
+  }
+
+  @Override
+  public void addLast(String s) {
+    ensureTailCapacity(1);
+    elements[tail++] = s;
+    modCount++;
+  }
+
+  @Override
+  public boolean offerFirst(String s) {
+    addFirst(s);
+    return true;
+  }
+
+  @Override
+  public boolean offerLast(String s) {
+    addLast(s);
+    return true;
+  }
+
+  @Override
+  public String removeFirst() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    String value = elements[head];
+    elements[head++] = null;
+    modCount++;
+    return value;
+  }
+
+  @Override
+  public String removeLast() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    String value = elements[--tail];
+    elements[tail] = null;
+    modCount++;
+    return value;
+  }
+
+  @Override
+  public String pollFirst() {
+    return isEmpty() ? null : removeFirst();
+  }
+
+  @Override
+  public String pollLast() {
+    return isEmpty() ? null : removeLast();
+  }
+
+  @Override
+  public String getFirst() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    return elements[head];
+  }
+
+  @Override
+  public String getLast() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    return elements[tail - 1];
+  }
+
+  @Override
+  public String peekFirst() {
+    return isEmpty() ? null : elements[head];
+  }
+
+  @Override
+  public String peekLast() {
+    return isEmpty() ? null : elements[tail - 1];
+  }
+
+  @Override
+  public boolean removeFirstOccurrence(Object o) {
+    return remove(o);
+  }
+
+  @Override
+  public boolean removeLastOccurrence(Object o) {
+    int index = lastIndexOf(o);
+    if (index == -1) {
+      return false;
+    }
+    remove(index);
+    return true;
+  }
+
+  @Override
+  public boolean offer(String s) {
+    return offerLast(s);
+  }
+
+  @Override
+  public String remove() {
+    return removeFirst();
+  }
+
+  @Override
+  public String poll() {
+    return pollFirst();
+  }
+
+  @Override
+  public String element() {
+    return getFirst();
+  }
+
+  @Override
+  public String peek() {
+    return peekFirst();
+  }
+
+  @Override
+  public void push(String s) {
+    addFirst(s);
+  }
+
+  @Override
+  public String pop() {
+    return removeFirst();
+  }
+
+  @Override
+  public @NotNull Iterator<String> descendingIterator() {
+    return new Iterator<String>() {
+      private int cursor = size() - 1;
+      private int lastReturned = -1;
+
+      @Override
+      public boolean hasNext() {
+        return cursor >= 0;
+      }
+
+      @Override
+      public String next() {
+        if (cursor < 0) {
+          throw new NoSuchElementException();
+        }
+        lastReturned = cursor;
+        return get(cursor--);
+      }
+
+      @Override
+      public void remove() {
+        if (lastReturned < 0) {
+          throw new IllegalStateException();
+        }
+        ArrayArgumentStack.this.remove(lastReturned);
+        lastReturned = -1;
+      }
+    };
+  }
+
+  /* ArgumentStack */
+
+  @Override
+  public @NotNull String join(String delimiter) {
+    return join(delimiter, 0);
+  }
+
+  @Override
+  public @NotNull String join(@NotNull String delimiter, int startIndex) {
+    StringJoiner joiner = new StringJoiner(delimiter);
+    for (int i = head + startIndex; i < tail; i++) {
+      joiner.add(elements[i]);
+    }
+    return joiner.toString();
+  }
+
+  @Override
+  public @NotNull String popForParameter(@NotNull CommandParameter parameter) {
+    if (parameter.consumesAllString()) {
+      String value = join(" ");
+      clear();
+      return value;
+    }
+    return pop();
+  }
+
+  @Override
+  public @NotNull @UnmodifiableView List<String> asImmutableView() {
+    return unmodifiableView;
+  }
+
+  @Override
+  public @NotNull @Unmodifiable List<String> asImmutableCopy() {
+    return Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(elements, head, tail)));
+  }
+
+  @Override
+  public @NotNull ArgumentStack copy() {
+    return new ArrayArgumentStack(elements, head, tail);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+  }
+
+  private void ensureTailCapacity(int extra) {
+    if (tail + extra <= elements.length) {
+      return;
+    }
+    int size = size();
+    if (head > 0 && size + extra <= elements.length) {
+      // reclaim the slots freed by popping before growing
+      System.arraycopy(elements, head, elements, 0, size);
+      Arrays.fill(elements, size, tail, null);
+    } else {
+      int capacity = Math.max(DEFAULT_CAPACITY, Math.max(size + extra, size + (size >> 1)));
+      String[] grown = new String[capacity];
+      System.arraycopy(elements, head, grown, 0, size);
+      elements = grown;
+    }
+    head = 0;
+    tail = size;
+  }
+}
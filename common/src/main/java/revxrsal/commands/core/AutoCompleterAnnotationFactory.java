@@ -71,7 +71,7 @@ class AutoCompleterAnnotationFactory implements SuggestionProviderFactory {
         return provider;
       } else {
         List<String> suggestions = Arrays.asList(Strings.VERTICAL_BAR.split(providerV));
-        return SuggestionProvider.of(suggestions);
+        return SuggestionProvider.sorted(suggestions);
       }
     } catch (IndexOutOfBoundsException e) {
       return null;
@@ -28,6 +28,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 import revxrsal.commands.CommandHandler;
 import revxrsal.commands.autocomplete.AutoCompleter;
+import revxrsal.commands.autocomplete.PrefixSuggestionProvider;
 import revxrsal.commands.autocomplete.SuggestionProvider;
 import revxrsal.commands.autocomplete.SuggestionProviderFactory;
 import revxrsal.commands.command.*;
@@ -38,6 +39,7 @@ import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyList;
 import static revxrsal.commands.util.Collections.listOf;
+import static revxrsal.commands.util.Preconditions.checkArgument;
 import static revxrsal.commands.util.Preconditions.coerceIn;
 import static revxrsal.commands.util.Preconditions.notNull;
 
@@ -47,6 +49,7 @@ final class BaseAutoCompleter implements AutoCompleter {
     final Map<String, SuggestionProvider> suggestionKeys = new HashMap<>();
     final List<SuggestionProviderFactory> factories = new ArrayList<>();
     private boolean filterToClosestInput = true;
+    private int suggestionLimit = Integer.MAX_VALUE;
 
     public BaseAutoCompleter(BaseCommandHandler handler) {
         this.handler = handler;
@@ -72,7 +75,9 @@ final class BaseAutoCompleter implements AutoCompleter {
     }
 
     @Override public AutoCompleter registerSuggestion(@NotNull String providerID, @NotNull String... completions) {
-        registerSuggestion(providerID, listOf(completions));
+        notNull(providerID, "provider ID");
+        notNull(completions, "completions");
+        suggestionKeys.put(providerID, SuggestionProvider.of(completions));
         return this;
     }
 
@@ -130,6 +135,16 @@ final class BaseAutoCompleter implements AutoCompleter {
     }
 
     @Override public List<String> complete(@NotNull CommandActor actor, @NotNull ArgumentStack arguments) {
+        Object event = FlightRecorderEvents.beginCompletion();
+        if (event == null)
+            return completeArguments(actor, arguments);
+        int inputLength = String.join(" ", arguments).length();
+        List<String> completions = completeArguments(actor, arguments);
+        FlightRecorderEvents.commitCompletion(event, inputLength, completions.size());
+        return completions;
+    }
+
+    private List<String> completeArguments(@NotNull CommandActor actor, @NotNull ArgumentStack arguments) {
         CommandPath path = CommandPath.get(arguments.subList(0, arguments.size() - 1));
         int originalSize = arguments.size();
         ExecutableCommand command = searchForCommand(path, actor);
@@ -154,27 +169,55 @@ final class BaseAutoCompleter implements AutoCompleter {
         this.filterToClosestInput = filterToClosestInput;
     }
 
+    @Override
+    public AutoCompleter setSuggestionLimit(int limit) {
+        checkArgument(limit > 0, "suggestion limit must be positive");
+        this.suggestionLimit = limit;
+        return this;
+    }
+
+    @Override
+    public int getSuggestionLimit() {
+        return suggestionLimit;
+    }
+
     private ExecutableCommand searchForCommand(CommandPath path, CommandActor actor) {
-        ExecutableCommand found = handler.getCommand(path);
-        if (found != null && !found.isSecret() && found.getPermission().canExecute(actor)) return found;
-        MutableCommandPath mpath = MutableCommandPath.empty();
+        if (path.size() == 0)
+            return null;
+        CommandTrie.Node[] nodes = new CommandTrie.Node[path.size()];
+        CommandTrie.Node node = handler.registry.trie.root();
+        int depth = 0;
         for (String p : path) {
-            mpath.add(p);
-            found = handler.getCommand(mpath);
-            if (found != null && !found.isSecret() && found.getPermission().canExecute(actor))
+            node = node.child(p);
+            if (node == null) break;
+            nodes[depth++] = node;
+        }
+        if (depth == nodes.length) {
+            ExecutableCommand found = nodes[depth - 1].executable();
+            if (isVisible(found, actor)) return found;
+        }
+        for (int i = 0; i < depth; i++) {
+            ExecutableCommand found = nodes[i].executable();
+            if (isVisible(found, actor))
                 return found;
         }
         return null;
     }
 
+    private static boolean isVisible(ExecutableCommand command, CommandActor actor) {
+        return command != null && !command.isSecret() && command.getPermission().canExecute(actor);
+    }
+
     private CommandCategory getLastCategory(CommandPath path) {
-        MutableCommandPath mpath = MutableCommandPath.empty();
+        CommandTrie.Node node = handler.registry.trie.root();
         CommandCategory category = null;
         for (String p : path) {
-            mpath.add(p);
-            CommandCategory c = handler.getCategory(mpath);
+            node = node.child(p);
+            CommandCategory c = node == null ? null : node.category();
             if (c == null && category != null)
                 return category;
+            if (node == null)
+                return null;
             if (c != null)
                 category = c;
         }
@@ -196,7 +239,7 @@ final class BaseAutoCompleter implements AutoCompleter {
                         if (!parameter.getPermission().canExecute(actor)) return emptyList();
                         SuggestionProvider provider = parameter.getSuggestionProvider();
                         notNull(provider, "provider must not be null!");
-                        return getParamCompletions(provider.getSuggestions(args, actor, command), args);
+                        return getParamCompletions(provider, args, actor, command);
                     }
                 } catch (Throwable ignored) {
                 }
@@ -210,14 +253,14 @@ final class BaseAutoCompleter implements AutoCompleter {
             }).findFirst();
             if (currentFlag.isPresent()) {
                 SuggestionProvider provider = currentFlag.get().getSuggestionProvider();
-                return getParamCompletions(provider.getSuggestions(args, actor, command), args);
+                return getParamCompletions(provider, args, actor, command);
             }
             for (CommandParameter flag : parameters) {
                 int index = args.indexOf(handler.getFlagPrefix() + flag.getFlagName());
                 if (index == -1) {
                     return listOf(handler.getFlagPrefix() + flag.getFlagName());
                 } else if (index == args.size() - 2) {
-                    return getParamCompletions(flag.getSuggestionProvider().getSuggestions(args, actor, command), args);
+                    return getParamCompletions(flag.getSuggestionProvider(), args, actor, command);
                 }
             }
             return emptyList();
@@ -226,6 +269,14 @@ final class BaseAutoCompleter implements AutoCompleter {
         }
     }
 
+    @NotNull private List<String> getParamCompletions(SuggestionProvider provider,
+                                                      ArgumentStack args,
+                                                      CommandActor actor,
+                                                      ExecutableCommand command) throws Throwable {
+        String prefix = filterToClosestInput ? args.getLast() : "";
+        return PrefixSuggestionProvider.collect(provider, args, actor, command, prefix, suggestionLimit);
+    }
+
     @NotNull private List<String> getParamCompletions(Collection<String> provider, ArgumentStack args) {
         return provider
                 .stream()
@@ -238,8 +289,8 @@ final class BaseAutoCompleter implements AutoCompleter {
     private List<String> getCompletions(CommandActor actor, @Unmodifiable ArgumentStack args, CommandCategory category, int originalSize) {
         if (args.isEmpty()) return emptyList();
         Set<String> suggestions = new HashSet<>();
-        if (category.getDefaultAction() != null) {
-            ExecutableCommand defaultAction = category.getDefaultAction();
+        ExecutableCommand defaultAction = category.getDefaultAction();
+        if (defaultAction != null) {
             if (!defaultAction.isSecret() && defaultAction.getPermission().canExecute(actor))
                 suggestions.addAll(getCompletions(actor, args, defaultAction));
         }
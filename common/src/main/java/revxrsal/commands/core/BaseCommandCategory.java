@@ -42,12 +42,17 @@ final class BaseCommandCategory implements CommandCategory {
   String name;
   @Nullable BaseCommandCategory parent;
   @Nullable CommandExecutable defaultAction;
-  CommandHandler handler;
+  BaseCommandHandler handler;
 
+  // only modified while registering, readers use the snapshot in the registry
   final Map<CommandPath, ExecutableCommand> commands = new HashMap<>();
   final Map<CommandPath, BaseCommandCategory> categories = new HashMap<>();
   final CommandPermission permission = new CategoryPermission();
 
+  // replaced while holding the registration lock, right before the registry that includes it is
+  // published. readers that reach this category through the registry see the matching snapshot.
+  Snapshot published = Snapshot.EMPTY;
+
   @Override
   public @NotNull String getName() {
     return name;
@@ -65,12 +70,12 @@ final class BaseCommandCategory implements CommandCategory {
 
   @Override
   public @Nullable CommandCategory getParent() {
-    return parent;
+    return published.parent;
   }
 
   @Override
-  public @Nullable ExecutableCommand getDefaultAction() {
-    return defaultAction;
+  public @Nullable CommandExecutable getDefaultAction() {
+    return published.defaultAction;
   }
 
   @Override
@@ -80,13 +85,14 @@ final class BaseCommandCategory implements CommandCategory {
 
   @Override
   public boolean isSecret() {
-    for (ExecutableCommand command : commands.values()) {
+    Snapshot snapshot = published;
+    for (ExecutableCommand command : snapshot.commands.values()) {
       if (command.isSecret()) {
         continue;
       }
       return false;
     }
-    for (CommandCategory category : categories.values()) {
+    for (CommandCategory category : snapshot.categories.values()) {
       if (category.isSecret()) {
         continue;
       }
@@ -97,23 +103,42 @@ final class BaseCommandCategory implements CommandCategory {
 
   @Override
   public boolean isEmpty() {
-    return defaultAction == null && commands.isEmpty() && categories.isEmpty();
+    Snapshot snapshot = published;
+    return snapshot.defaultAction == null && snapshot.commands.isEmpty()
+        && snapshot.categories.isEmpty();
   }
 
-  private final Map<CommandPath, CommandCategory> unmodifiableCategories = Collections.unmodifiableMap(
-      categories);
+  /**
+   * Tests whether this category has no entries left, including ones that were not published
+   * yet. This is for use while unregistering.
+   */
+  boolean hasNoEntries() {
+    return defaultAction == null && commands.isEmpty() && categories.isEmpty();
+  }
 
   @Override
   public @NotNull @UnmodifiableView Map<CommandPath, CommandCategory> getCategories() {
-    return unmodifiableCategories;
+    return published.categories;
   }
 
-  private final Map<CommandPath, ExecutableCommand> unmodifiableCommands = Collections.unmodifiableMap(
-      commands);
-
   @Override
   public @NotNull @UnmodifiableView Map<CommandPath, ExecutableCommand> getCommands() {
-    return unmodifiableCommands;
+    return published.commands;
+  }
+
+  /**
+   * Copies the current state of this category, to be published as part of a
+   * {@link CommandRegistry}
+   *
+   * @return The snapshot
+   */
+  Snapshot snapshot() {
+    return new Snapshot(
+        Collections.unmodifiableMap(new HashMap<>(commands)),
+        Collections.unmodifiableMap(new HashMap<>(categories)),
+        parent,
+        defaultAction
+    );
   }
 
   @Override
@@ -122,9 +147,12 @@ final class BaseCommandCategory implements CommandCategory {
   }
 
   public void parent(BaseCommandCategory cat) {
-    parent = cat;
-    if (cat != null) {
-      cat.categories.put(path, this);
+    if (parent != cat) {
+      parent = cat;
+      handler.changedPaths.add(path);
+    }
+    if (cat != null && cat.categories.put(path, this) != this) {
+      handler.changedPaths.add(path);
     }
   }
 
@@ -136,20 +164,21 @@ final class BaseCommandCategory implements CommandCategory {
 
     @Override
     public boolean canExecute(@NotNull CommandActor actor) {
-      for (ExecutableCommand command : commands.values()) {
+      Snapshot snapshot = published;
+      for (ExecutableCommand command : snapshot.commands.values()) {
         if (command.getPermission().canExecute(actor)) {
           return true;
         }
       }
-      for (CommandCategory category : categories.values()) {
+      for (CommandCategory category : snapshot.categories.values()) {
         if (category.getPermission().canExecute(actor)) {
           return true;
         }
       }
-      if (defaultAction == null) {
+      if (snapshot.defaultAction == null) {
         return false;
       }
-      return defaultAction.hasPermission(actor);
+      return snapshot.defaultAction.hasPermission(actor);
     }
   }
 
@@ -157,4 +186,29 @@ final class BaseCommandCategory implements CommandCategory {
   public int compareTo(@NotNull CommandCategory o) {
     return path.compareTo(o.getPath());
   }
+
+  /**
+   * The published state of a category. Snapshots are only created while holding the
+   * registration lock, and published together with the rest of the {@link CommandRegistry}.
+   */
+  static final class Snapshot {
+
+    static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(),
+        Collections.emptyMap(), null, null);
+
+    private final Map<CommandPath, ExecutableCommand> commands;
+    private final Map<CommandPath, CommandCategory> categories;
+    private final @Nullable BaseCommandCategory parent;
+    private final @Nullable CommandExecutable defaultAction;
+
+    private Snapshot(Map<CommandPath, ExecutableCommand> commands,
+        Map<CommandPath, CommandCategory> categories,
+        @Nullable BaseCommandCategory parent,
+        @Nullable CommandExecutable defaultAction) {
+      this.commands = commands;
+      this.categories = categories;
+      this.parent = parent;
+      this.defaultAction = defaultAction;
+    }
+  }
 }
@@ -23,7 +23,6 @@
  */
 package revxrsal.commands.core;
 
-import lombok.AllArgsConstructor;
 import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
@@ -32,17 +31,16 @@ import revxrsal.commands.command.ArgumentStack;
 import revxrsal.commands.command.CommandActor;
 import revxrsal.commands.command.CommandParameter;
 import revxrsal.commands.command.ExecutableCommand;
+import revxrsal.commands.core.reflect.MethodCaller.BoundMethodCaller;
 import revxrsal.commands.exception.*;
-import revxrsal.commands.process.ContextResolver;
-import revxrsal.commands.process.ParameterResolver;
-import revxrsal.commands.process.ParameterResolver.ParameterResolverContext;
-import revxrsal.commands.process.ParameterValidator;
+import revxrsal.commands.process.CommandCondition;
+import revxrsal.commands.process.CommandMetrics;
+import revxrsal.commands.process.CommandMetrics.Stage;
+import revxrsal.commands.process.ContextResolver.ContextResolverContext;
 import revxrsal.commands.process.ValueResolver.ValueResolverContext;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.function.Function;
-
-import static revxrsal.commands.ktx.call.KotlinConstants.*;
 
 public final class BaseCommandDispatcher {
 
@@ -53,107 +51,245 @@ public final class BaseCommandDispatcher {
     }
 
     public Object eval(@NotNull CommandActor actor, @NotNull ArgumentStack arguments) {
+        return eval(actor, arguments, -1);
+    }
+
+    public Object eval(@NotNull CommandActor actor, @NotNull ArgumentStack arguments, long tokenizeNanos) {
+        Timings timings = Timings.start(handler.getCommandMetrics(), tokenizeNanos,
+                FlightRecorderEvents.beginDispatch());
+        boolean stackless = UserErrorException.setStacklessOnThread(handler.stacklessUserErrors);
         try {
-            MutableCommandPath path = MutableCommandPath.empty();
             String argument = arguments.getFirst();
-            path.add(argument);
-            CommandExecutable executable = handler.executables.get(path);
-            if (executable != null) {
-                arguments.removeFirst();
-                return execute(executable, actor, arguments);
-            }
-
-            BaseCommandCategory category = handler.categories.get(path);
-            if (category != null) {
-                arguments.removeFirst();
-                return searchCategory(actor, category, path, arguments);
-            } else {
-                throw new InvalidCommandException(path, path.getFirst());
+            CommandTrie.Node node = handler.registry.trie.root().child(argument);
+            if (node != null) {
+                CommandExecutable executable = node.executable();
+                if (executable != null) {
+                    arguments.removeFirst();
+                    return execute(executable, actor, arguments, timings);
+                }
+                if (node.category() != null) {
+                    arguments.removeFirst();
+                    return searchCategory(actor, node, arguments, timings);
+                }
             }
+            CommandPath path = CommandPath.get(argument);
+            throw new InvalidCommandException(path, path.getFirst());
         } catch (Throwable throwable) {
+            FlightRecorderEvents.commitDispatch(timings.event, null, actor, throwable);
             handler.getExceptionHandler().handleException(throwable, actor);
+        } finally {
+            UserErrorException.setStacklessOnThread(stackless);
         }
         return null;
     }
 
-    private Object searchCategory(CommandActor actor, BaseCommandCategory category, MutableCommandPath path, ArgumentStack arguments) {
-        if (!arguments.isEmpty()) {
-            path.add(arguments.getFirst());
-        }
-        CommandExecutable executable = (CommandExecutable) category.commands.get(path);
-        if (executable != null) {
+    private Object searchCategory(CommandActor actor, CommandTrie.Node node, ArgumentStack arguments, Timings timings) {
+        BaseCommandCategory category = node.category();
+        CommandTrie.Node child = arguments.isEmpty() ? null : node.child(arguments.getFirst());
+        if (child != null && child.executable() != null) {
             arguments.removeFirst();
-            return execute(executable, actor, arguments);
+            return execute(child.executable(), actor, arguments, timings);
         }
         category.checkPermission(actor);
-        BaseCommandCategory found = (BaseCommandCategory) category.getCategories().get(path);
-        if (found == null) {
-            if (category.defaultAction == null)
+        if (child == null || child.category() == null) {
+            CommandExecutable defaultAction = category.getDefaultAction();
+            if (defaultAction == null)
                 throw new NoSubcommandSpecifiedException(category);
             else {
-                return execute(category.defaultAction, actor, arguments);
+                return execute(defaultAction, actor, arguments, timings);
             }
         } else {
             arguments.removeFirst();
-            return searchCategory(actor, found, path, arguments);
+            return searchCategory(actor, child, arguments, timings);
         }
     }
 
     private Object execute(@NotNull CommandExecutable executable,
                            @NotNull CommandActor actor,
-                           @NotNull ArgumentStack args) {
+                           @NotNull ArgumentStack args,
+                           @NotNull Timings timings) {
+        timings.lap(Stage.LOOKUP);
+        if (executable.async) {
+            executeAsync(executable, actor, args, timings);
+            return null;
+        }
+        try {
+            Object[] methodArguments = prepare(executable, actor, args, timings);
+            Object result = invoke(executable, actor, methodArguments, timings);
+            finish(executable, actor, timings, null);
+            return result;
+        } catch (Throwable throwable) {
+            finish(executable, actor, timings, throwable);
+            throw throwable;
+        }
+    }
+
+    private void finish(@NotNull CommandExecutable executable,
+                        @NotNull CommandActor actor,
+                        @NotNull Timings timings,
+                        Throwable error) {
+        if (timings.nanos != null)
+            handler.getCommandMetrics().record(executable, timings.nanos, error);
+        if (timings.event != null) {
+            FlightRecorderEvents.commitDispatch(timings.event, executable, actor, error);
+            timings.event = null;
+        }
+    }
+
+    private void executeAsync(@NotNull CommandExecutable executable,
+                              @NotNull CommandActor actor,
+                              @NotNull ArgumentStack args,
+                              @NotNull Timings timings) {
+        handler.getAsyncExecutor().execute(() -> {
+            timings.restart();
+            boolean stackless = UserErrorException.setStacklessOnThread(handler.stacklessUserErrors);
+            try {
+                Object[] methodArguments = prepare(executable, actor, args, timings);
+                Runnable invocation = () -> {
+                    timings.restart();
+                    boolean previous = UserErrorException.setStacklessOnThread(handler.stacklessUserErrors);
+                    try {
+                        invoke(executable, actor, methodArguments, timings);
+                        finish(executable, actor, timings, null);
+                    } catch (Throwable throwable) {
+                        finish(executable, actor, timings, throwable);
+                        handler.getExceptionHandler().handleException(throwable, actor);
+                    } finally {
+                        UserErrorException.setStacklessOnThread(previous);
+                    }
+                };
+                if (executable.invokeOnMainThread)
+                    handler.getMainThreadExecutor().execute(invocation);
+                else
+                    invocation.run();
+            } catch (Throwable throwable) {
+                finish(executable, actor, timings, throwable);
+                handler.getExceptionHandler().handleException(throwable, actor);
+            } finally {
+                UserErrorException.setStacklessOnThread(stackless);
+            }
+        });
+    }
+
+    private Object[] prepare(@NotNull CommandExecutable executable,
+                             @NotNull CommandActor actor,
+                             @NotNull ArgumentStack args,
+                             @NotNull Timings timings) {
         List<String> input = args.asImmutableCopy();
-        handler.conditions.forEach(condition -> condition.test(actor, executable, args.asImmutableView()));
+        if (executable.conditions.length != 0) {
+            List<String> view = args.asImmutableView();
+            for (CommandCondition condition : executable.conditions)
+                condition.test(actor, executable, view);
+        }
+        timings.lap(Stage.CONDITIONS);
         Object[] methodArguments = getMethodArguments(executable, actor, args, input);
         if (!args.isEmpty() && handler.failOnExtra) {
             throw new TooManyArgumentsException(executable, args);
         }
+        timings.lap(Stage.ARGUMENTS);
+        return methodArguments;
+    }
+
+    private Object invoke(@NotNull CommandExecutable executable,
+                          @NotNull CommandActor actor,
+                          @NotNull Object[] methodArguments,
+                          @NotNull Timings timings) {
         Object result;
+        BoundMethodCaller primitiveCaller = executable.plan.primitiveCaller;
         try {
-            result = executable.methodCaller.call(methodArguments);
+            if (primitiveCaller != null)
+                result = primitiveCaller.call(methodArguments);
+            else
+                result = executable.methodCaller.call(methodArguments);
         } catch (Throwable throwable) {
             throw new CommandInvocationException(executable, throwable);
+        } finally {
+            timings.lap(Stage.INVOCATION);
         }
         executable.responseHandler.handleResponse(result, actor, executable);
+        timings.lap(Stage.RESPONSE);
         return result;
     }
 
     @SneakyThrows
     private Object[] getMethodArguments(CommandExecutable executable, CommandActor actor, ArgumentStack args, List<String> input) {
-        Object[] values = new Object[executable.parameters.size()];
-        for (CommandParameter parameter : executable.parameters) {
-            if (ArgumentStack.class.isAssignableFrom(parameter.getType()))
-                values[parameter.getMethodIndex()] = args;
-            else if (parameter.isSwitch())
-                handleSwitch(args, values, parameter);
-            else if (parameter.isFlag())
-                handleFlag(input, actor, args, values, parameter);
-        }
-        for (CommandParameter parameter : executable.parameters) {
-            if (ArgumentStack.class.isAssignableFrom(parameter.getType())) {
-                values[parameter.getMethodIndex()] = args;
-                continue;
-            }
-            if (!parameter.isSwitch() && !parameter.isFlag()) {
-                ParameterResolver<?> resolver = parameter.getResolver();
-                if (!resolver.mutatesArguments()) {
+        InvocationPlan plan = executable.plan;
+        Object[] values;
+        long[] primitives = null;
+        if (plan.primitiveKinds != null) {
+            // primitive parameters are passed in a long[] after the others
+            values = new Object[plan.parameterCount + 1];
+            values[plan.parameterCount] = primitives = new long[plan.parameterCount];
+        } else {
+            values = new Object[plan.parameterCount];
+        }
+        ValueContextR context = new ValueContextR(input, actor, values, plan.primitiveKinds, primitives);
+        for (InvocationPlan.Step step : plan.switchesAndFlags) {
+            if (step.kind == InvocationPlan.SWITCH)
+                handleSwitch(args, values, step);
+            else
+                handleFlag(context, args, values, step);
+        }
+        for (InvocationPlan.Step step : plan.arguments) {
+            CommandParameter parameter = step.parameter;
+            switch (step.kind) {
+                case InvocationPlan.ARGUMENT_STACK: {
+                    values[step.methodIndex] = args;
+                    break;
+                }
+                case InvocationPlan.CONTEXT: {
                     parameter.checkPermission(actor);
-                    ContextResolverContext cxt = new ContextResolverContext(input, actor, parameter, values);
-                    Object value = resolver.resolve(cxt);
-                    for (ParameterValidator<Object> v : parameter.getValidators()) {
-                        v.validate(value, parameter, actor);
+                    context.parameter = parameter;
+                    context.argumentStack = args;
+                    Object event = FlightRecorderEvents.beginArgument();
+                    Object value = step.resolver.resolve(context);
+                    FlightRecorderEvents.commitArgument(event, parameter);
+                    step.validate(value, actor);
+                    values[step.methodIndex] = value;
+                    break;
+                }
+                case InvocationPlan.INT:
+                case InvocationPlan.LONG:
+                case InvocationPlan.DOUBLE:
+                case InvocationPlan.FLOAT:
+                case InvocationPlan.BOOLEAN: {
+                    // absent optional primitives are left as zero, which is their default value
+                    if (addDefaultValues(args, step, values)) {
+                        parameter.checkPermission(actor);
+                        context.parameter = parameter;
+                        context.argumentStack = args;
+                        Object event = FlightRecorderEvents.beginArgument();
+                        long value = step.resolvePrimitive(context);
+                        FlightRecorderEvents.commitArgument(event, parameter);
+                        if (step.validators.length != 0)
+                            step.validatePrimitive(value, actor);
+                        primitives[step.methodIndex] = value;
+                        values[step.methodIndex] = ValueContextR.RESOLVED_PRIMITIVE;
                     }
-                    values[parameter.getMethodIndex()] = value;
-                } else {
-                    boolean added = addDefaultValues(args, parameter, values);
+                    break;
+                }
+                default: {
+                    boolean defaulted = args.isEmpty();
+                    if (defaulted && step.resolvedDefault != InvocationPlan.UNRESOLVED) {
+                        parameter.checkPermission(actor);
+                        Object value = step.resolvedDefault;
+                        step.validate(value, actor);
+                        values[step.methodIndex] = value;
+                        break;
+                    }
+                    boolean added = addDefaultValues(args, step, values);
                     if (added) {
                         parameter.checkPermission(actor);
-                        ValueContextR cxt = new ValueContextR(input, actor, parameter, values, args);
-                        Object value = resolver.resolve(cxt);
-                        for (ParameterValidator<Object> v : parameter.getValidators()) {
-                            v.validate(value, parameter, actor);
-                        }
-                        values[parameter.getMethodIndex()] = value;
+                        context.parameter = parameter;
+                        context.argumentStack = args;
+                        Object event = FlightRecorderEvents.beginArgument();
+                        Object value = step.resolveValue(context);
+                        FlightRecorderEvents.commitArgument(event, parameter);
+                        // only reuse defaults that were consumed entirely
+                        if (defaulted && step.cachesDefault && args.isEmpty())
+                            step.resolvedDefault = value;
+                        step.validate(value, actor);
+                        values[step.methodIndex] = value;
                     }
                 }
             }
@@ -162,14 +298,12 @@ public final class BaseCommandDispatcher {
     }
 
     private boolean addDefaultValues(ArgumentStack args,
-                                     CommandParameter parameter,
+                                     InvocationPlan.Step step,
                                      Object[] values) {
         if (args.isEmpty()) {
+            CommandParameter parameter = step.parameter;
             if (parameter.isOptional() && parameter.getDefaultValue().isEmpty()) {
-                if (isKotlinClass(parameter.getJavaParameter().getDeclaringExecutable().getDeclaringClass()))
-                    values[parameter.getMethodIndex()] = ABSENT_VALUE;
-                else
-                    values[parameter.getMethodIndex()] = defaultPrimitiveValue(parameter.getType());
+                values[step.methodIndex] = step.absentValue;
                 return false;
             } else {
                 if (!parameter.getDefaultValue().isEmpty()) {
@@ -183,34 +317,39 @@ public final class BaseCommandDispatcher {
         return true;
     }
 
-    private void handleSwitch(ArgumentStack args, Object[] values, CommandParameter parameter) {
-        boolean provided = args.remove(handler.switchPrefix + parameter.getSwitchName());
+    private void handleSwitch(ArgumentStack args, Object[] values, InvocationPlan.Step step) {
+        boolean provided = args.remove(step.literal);
         if (!provided)
-            values[parameter.getMethodIndex()] = parameter.getDefaultSwitch();
+            values[step.methodIndex] = step.parameter.getDefaultSwitch();
         else
-            values[parameter.getMethodIndex()] = true;
+            values[step.methodIndex] = true;
     }
 
-    private void handleFlag(List<String> input, CommandActor actor, ArgumentStack args, Object[] values, CommandParameter parameter) {
-        String lookup = handler.getFlagPrefix() + parameter.getFlagName();
+    @SneakyThrows
+    private void handleFlag(ValueContextR context, ArgumentStack args, Object[] values, InvocationPlan.Step step) {
+        CommandParameter parameter = step.parameter;
+        String lookup = step.literal;
         int index = args.indexOf(lookup);
         ArgumentStack flagArguments;
+        boolean defaulted = false;
         if (index == -1) { // flag isn't specified, use default value or throw an MPE.
             if (parameter.isOptional()) {
                 if (!parameter.getDefaultValue().isEmpty()) {
+                    Object resolved = step.resolvedDefault;
+                    if (resolved != InvocationPlan.UNRESOLVED) {
+                        step.validate(resolved, context.actor);
+                        values[step.methodIndex] = resolved;
+                        return;
+                    }
+                    defaulted = parameter.getDefaultValue().size() == 1;
                     args.add(lookup);
                     args.addAll(parameter.getDefaultValue());
                     index = args.indexOf(lookup);
                     args.remove(index); // remove the flag prefix + flag name
                     flagArguments = ArgumentStack.parse(args.remove(index)); // put the actual value in a separate argument stack
                 } else {
-                    for (ParameterValidator<Object> v : parameter.getValidators()) {
-                        v.validate(null, parameter, actor);
-                    }
-                    if (isKotlinClass(parameter.getJavaParameter().getDeclaringExecutable().getDeclaringClass()))
-                        values[parameter.getMethodIndex()] = ABSENT_VALUE;
-                    else
-                        values[parameter.getMethodIndex()] = defaultPrimitiveValue(parameter.getType());
+                    step.validate(null, context.actor);
+                    values[step.methodIndex] = step.absentValue;
                     return;
                 }
             } else {
@@ -222,21 +361,118 @@ public final class BaseCommandDispatcher {
                 throw new MissingArgumentException(parameter);
             flagArguments = ArgumentStack.copyExact(args.remove(index)); // put the actual value in a separate argument stack
         }
-        ValueContextR contextR = new ValueContextR(input, actor, parameter, values, flagArguments);
-        Object value = parameter.getResolver().resolve(contextR);
-        for (ParameterValidator<Object> v : parameter.getValidators()) {
-            v.validate(value, parameter, actor);
+        context.parameter = parameter;
+        context.argumentStack = flagArguments;
+        Object event = FlightRecorderEvents.beginArgument();
+        Object value = step.resolveValue(context);
+        FlightRecorderEvents.commitArgument(event, parameter);
+        // extra default values are left in the arguments, so those cannot be skipped
+        if (defaulted && step.cachesDefault && flagArguments.isEmpty())
+            step.resolvedDefault = value;
+        step.validate(value, context.actor);
+        values[step.methodIndex] = value;
+    }
+
+    /**
+     * The time spent in each {@link Stage} of a single dispatch, reported to
+     * the {@link CommandMetrics}. Stages that were not reached stay negative.
+     * <p>
+     * Nothing is timed while the metrics are {@link CommandMetrics#disabled() disabled},
+     * and a dispatch that has no Flight Recorder event either shares {@link #UNTIMED}.
+     */
+    static final class Timings {
+
+        private static final int STAGES = Stage.values().length;
+
+        private static final Timings UNTIMED = new Timings(null, null);
+
+        /**
+         * The nanoseconds spent in each stage, or null if this dispatch is not timed
+         */
+        final long[] nanos;
+        private long mark;
+
+        /**
+         * The Flight Recorder event of this dispatch, or null once it is committed
+         */
+        Object event;
+
+        private Timings(long[] nanos, Object event) {
+            this.nanos = nanos;
+            this.event = event;
+            if (nanos != null)
+                mark = System.nanoTime();
+        }
+
+        static Timings start(@NotNull CommandMetrics metrics, long tokenizeNanos, Object event) {
+            if (metrics == CommandMetrics.disabled())
+                return event == null ? UNTIMED : new Timings(null, event);
+            long[] nanos = new long[STAGES];
+            Arrays.fill(nanos, -1);
+            nanos[Stage.TOKENIZE.ordinal()] = tokenizeNanos;
+            return new Timings(nanos, event);
+        }
+
+        void lap(Stage stage) {
+            if (nanos == null)
+                return;
+            long now = System.nanoTime();
+            nanos[stage.ordinal()] = now - mark;
+            mark = now;
+        }
+
+        /**
+         * Starts timing the next stage from now, leaving out time spent waiting
+         * for another thread.
+         */
+        void restart() {
+            if (nanos != null)
+                mark = System.nanoTime();
         }
-        values[parameter.getMethodIndex()] = value;
     }
 
-    @AllArgsConstructor
-    private static abstract class ParamResolverContext implements ParameterResolverContext {
+    /**
+     * The resolver context passed to both value and context resolvers. A single
+     * instance is reused for all parameters of the same invocation.
+     */
+    static final class ValueContextR implements ValueResolverContext, ContextResolverContext {
+
+        /**
+         * Marks a parameter whose value was resolved into the primitives
+         * array. Parameters that were not resolved yet are still null.
+         */
+        static final Object RESOLVED_PRIMITIVE = new Object();
 
         private final List<String> input;
         private final CommandActor actor;
-        private final CommandParameter parameter;
         private final Object[] resolved;
+        private final int[] primitiveKinds;
+        private final long[] primitives;
+        CommandParameter parameter;
+        ArgumentStack argumentStack;
+
+        public ValueContextR(List<String> input,
+                             CommandActor actor,
+                             Object[] resolved,
+                             int[] primitiveKinds,
+                             long[] primitives) {
+            this.input = input;
+            this.actor = actor;
+            this.resolved = resolved;
+            this.primitiveKinds = primitiveKinds;
+            this.primitives = primitives;
+        }
+
+        /**
+         * Returns the resolved value of the parameter at the given index,
+         * boxing it if it was resolved as a primitive
+         */
+        private Object resolved(int index) {
+            Object value = resolved[index];
+            if (value == RESOLVED_PRIMITIVE)
+                return InvocationPlan.box(primitiveKinds[index], primitives[index]);
+            return value;
+        }
 
         @Override
         public @NotNull @Unmodifiable List<String> input() {
@@ -266,7 +502,7 @@ public final class BaseCommandDispatcher {
         @Override
         public <T> @NotNull T getResolvedParameter(@NotNull CommandParameter parameter) {
             try {
-                return (T) resolved[parameter.getMethodIndex()];
+                return (T) resolved(parameter.getMethodIndex());
             } catch (Throwable throwable) {
                 throw new IllegalArgumentException("This parameter has not been resolved yet!");
             }
@@ -274,33 +510,18 @@ public final class BaseCommandDispatcher {
 
         @Override
         public <T> @NotNull T getResolvedArgument(@NotNull Class<T> type) {
-            for (Object o : resolved) {
-                if (type.isInstance(o))
+            int count = primitives == null ? resolved.length : primitives.length;
+            for (int i = 0; i < count; i++) {
+                Object o = resolved[i];
+                if (o == RESOLVED_PRIMITIVE) {
+                    // only box the primitives that could match
+                    if (type.isAssignableFrom(InvocationPlan.boxedType(primitiveKinds[i])))
+                        return (T) resolved(i);
+                } else if (type.isInstance(o))
                     return (T) o;
             }
             throw new IllegalArgumentException("This parameter has not been resolved yet!");
         }
-    }
-
-    private static final class ContextResolverContext extends ParamResolverContext implements ContextResolver.ContextResolverContext {
-
-        public ContextResolverContext(List<String> input, CommandActor actor, CommandParameter parameter, Object[] resolved) {
-            super(input, actor, parameter, resolved);
-        }
-    }
-
-    static final class ValueContextR extends ParamResolverContext implements ValueResolverContext {
-
-        ArgumentStack argumentStack;
-
-        public ValueContextR(List<String> input,
-                             CommandActor actor,
-                             CommandParameter parameter,
-                             Object[] resolved,
-                             ArgumentStack argumentStack) {
-            super(input, actor, parameter, resolved);
-            this.argumentStack = argumentStack;
-        }
 
         @Override
         public ArgumentStack arguments() {
@@ -317,45 +538,34 @@ public final class BaseCommandDispatcher {
             return arguments().pop();
         }
 
-        private <T> T num(Function<String, T> f) {
-            String input = pop();
-            try {
-                if (input.startsWith("0x"))
-                    return (T) Integer.valueOf(input.substring(2), 16);
-                return f.apply(input);
-            } catch (NumberFormatException e) {
-                throw new InvalidNumberException(parameter(), input);
-            }
-        }
-
         @Override
         public int popInt() {
-            return num(Integer::parseInt);
+            return (int) NumberResolvers.parseIntegral(pop(), Integer.MIN_VALUE, Integer.MAX_VALUE, parameter());
         }
 
         @Override
         public double popDouble() {
-            return num(Double::parseDouble);
+            return NumberResolvers.parseDecimal(pop(), parameter());
         }
 
         @Override
         public byte popByte() {
-            return num(Byte::parseByte);
+            return (byte) NumberResolvers.parseIntegral(pop(), Byte.MIN_VALUE, Byte.MAX_VALUE, parameter());
         }
 
         @Override
         public short popShort() {
-            return num(Short::parseShort);
+            return (short) NumberResolvers.parseIntegral(pop(), Short.MIN_VALUE, Short.MAX_VALUE, parameter());
         }
 
         @Override
         public float popFloat() {
-            return num(Float::parseFloat);
+            return NumberResolvers.parseFloat(pop(), parameter());
         }
 
         @Override
         public long popLong() {
-            return num(Long::parseLong);
+            return NumberResolvers.parseIntegral(pop(), Long.MIN_VALUE, Long.MAX_VALUE, parameter());
         }
     }
 }
@@ -44,6 +44,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -51,17 +52,19 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 import org.jetbrains.annotations.UnmodifiableView;
 import revxrsal.commands.CommandHandler;
 import revxrsal.commands.CommandHandlerVisitor;
+import revxrsal.commands.annotation.Cached;
 import revxrsal.commands.annotation.Dependency;
 import revxrsal.commands.annotation.Description;
-import revxrsal.commands.annotation.Range;
 import revxrsal.commands.annotation.dynamic.AnnotationReplacer;
 import revxrsal.commands.autocomplete.AutoCompleter;
 import revxrsal.commands.command.ArgumentStack;
@@ -76,21 +79,29 @@ import revxrsal.commands.exception.DefaultExceptionHandler;
 import revxrsal.commands.exception.InvalidBooleanException;
 import revxrsal.commands.exception.InvalidURLException;
 import revxrsal.commands.exception.InvalidUUIDException;
-import revxrsal.commands.exception.NumberNotInRangeException;
 import revxrsal.commands.exception.ThrowableFromCommand;
+import revxrsal.commands.exception.UserErrorException;
 import revxrsal.commands.help.CommandHelp;
 import revxrsal.commands.help.CommandHelpWriter;
 import revxrsal.commands.orphan.OrphanCommand;
 import revxrsal.commands.orphan.OrphanRegistry;
 import revxrsal.commands.orphan.Orphans;
+import revxrsal.commands.process.AsyncExecutor;
+import revxrsal.commands.process.CachedValueResolver;
 import revxrsal.commands.process.CommandCondition;
+import revxrsal.commands.process.CommandMetrics;
 import revxrsal.commands.process.ContextResolver;
 import revxrsal.commands.process.ContextResolverFactory;
+import revxrsal.commands.process.CooldownStore;
 import revxrsal.commands.process.ParameterNamingStrategy;
 import revxrsal.commands.process.ParameterResolver;
 import revxrsal.commands.process.ParameterResolver.ParameterResolverContext;
 import revxrsal.commands.process.ParameterValidator;
+import revxrsal.commands.process.ParameterValidatorFactory;
+import revxrsal.commands.process.PrimitiveValueResolver;
+import revxrsal.commands.process.PureValueResolver;
 import revxrsal.commands.process.PermissionReader;
+import revxrsal.commands.process.ResolveResult;
 import revxrsal.commands.process.ResponseHandler;
 import revxrsal.commands.process.SenderResolver;
 import revxrsal.commands.process.ValueResolver;
@@ -111,19 +122,33 @@ import revxrsal.commands.util.StackTraceSanitizer;
 @ApiStatus.Internal
 public abstract class BaseCommandHandler implements CommandHandler {
 
+  private static final AsyncExecutor DEFAULT_ASYNC_EXECUTOR = AsyncExecutor.virtualThreads();
+
+  // only modified while holding registrationLock, readers use the registry
   protected final Map<CommandPath, CommandExecutable> executables = new HashMap<>();
   protected final Map<CommandPath, BaseCommandCategory> categories = new HashMap<>();
+  protected final Object registrationLock = new Object();
+  volatile CommandRegistry registry = CommandRegistry.EMPTY;
+  // paths whose command or category changed since the registry was last published
+  final Set<CommandPath> changedPaths = new HashSet<>();
+  // set while unregistering several paths, which publish a single registry at the end
+  private boolean deferPublishing;
   private final BaseCommandDispatcher dispatcher = new BaseCommandDispatcher(this);
 
   final List<ResolverFactory> factories = new ArrayList<>();
   final BaseAutoCompleter autoCompleter = new BaseAutoCompleter(this);
   final ClassMap<List<ParameterValidator<Object>>> validators = new ClassMap<>();
+  final List<ParameterValidatorFactory> validatorFactories = new ArrayList<>();
   final ClassMap<ResponseHandler<?>> responseHandlers = new ClassMap<>();
   final ClassMap<Supplier<?>> dependencies = new ClassMap<>();
   final List<SenderResolver> senderResolvers = new ArrayList<>();
   private final Set<PermissionReader> permissionReaders = new HashSet<>();
   final Map<Class<?>, Set<AnnotationReplacer<?>>> annotationReplacers = new ClassMap<>();
   private MethodCallerFactory methodCallerFactory = MethodCallerFactory.defaultFactory();
+  private CooldownStore cooldownStore = CooldownStore.striped();
+  private CommandMetrics commandMetrics = CommandMetrics.histograms();
+  private Executor asyncExecutor = DEFAULT_ASYNC_EXECUTOR;
+  private Executor mainThreadExecutor = Runnable::run;
   private final WrappedExceptionHandler exceptionHandler = new WrappedExceptionHandler(
       DefaultExceptionHandler.INSTANCE);
   private StackTraceSanitizer sanitizer = StackTraceSanitizer.defaultSanitizer();
@@ -132,6 +157,7 @@ public abstract class BaseCommandHandler implements CommandHandler {
   CommandHelpWriter<?> helpWriter;
   ParameterNamingStrategy parameterNamingStrategy = ParameterNamingStrategy.lowerCaseWithSpace();
   boolean failOnExtra = false;
+  boolean stacklessUserErrors = false;
   final List<CommandCondition> conditions = new ArrayList<>();
   private final Translator translator = BaseManager.getTranslator();
 
@@ -140,36 +166,38 @@ public abstract class BaseCommandHandler implements CommandHandler {
     registerContextResolverFactory(new SenderContextResolverFactory(senderResolvers));
     registerContextResolverFactory(DependencyResolverFactory.INSTANCE);
     registerValueResolverFactory(EitherValueResolverFactory.INSTANCE);
-    registerValueResolver(int.class, ValueResolverContext::popInt);
-    registerValueResolver(double.class, ValueResolverContext::popDouble);
-    registerValueResolver(short.class, ValueResolverContext::popShort);
-    registerValueResolver(byte.class, ValueResolverContext::popByte);
-    registerValueResolver(long.class, ValueResolverContext::popLong);
-    registerValueResolver(float.class, ValueResolverContext::popFloat);
-    registerValueResolver(boolean.class, bool());
+    registerValueResolver(int.class, NumberResolvers.INT);
+    registerValueResolver(double.class, NumberResolvers.DOUBLE);
+    registerValueResolver(short.class, NumberResolvers.SHORT);
+    registerValueResolver(byte.class, NumberResolvers.BYTE);
+    registerValueResolver(long.class, NumberResolvers.LONG);
+    registerValueResolver(float.class, NumberResolvers.FLOAT);
+    registerValueResolver(boolean.class, BooleanResolver.INSTANCE);
     registerValueResolver(String.class, ValueResolverContext::popForParameter);
-    registerValueResolver(UUID.class, context -> {
+    registerValueResolver(UUID.class, (PureValueResolver<UUID>) context -> {
       String value = context.pop();
-      try {
-        return UUID.fromString(value);
-      } catch (Throwable t) {
-        throw new InvalidUUIDException(context.parameter(), value);
+      if (!isUUID(value)) {
+        CommandParameter parameter = context.parameter();
+        return ResolveResult.failure(() -> new InvalidUUIDException(parameter, value));
       }
+      return ResolveResult.success(UUID.fromString(value));
     });
-    registerValueResolver(URL.class, context -> {
+    registerValueResolver(URL.class, (PureValueResolver<URL>) context -> {
       String value = context.pop();
       try {
-        return new URL(value);
+        return ResolveResult.success(new URL(value));
       } catch (MalformedURLException e) {
-        throw new InvalidURLException(context.parameter(), value);
+        CommandParameter parameter = context.parameter();
+        return ResolveResult.failure(() -> new InvalidURLException(parameter, value));
       }
     });
-    registerValueResolver(URI.class, context -> {
+    registerValueResolver(URI.class, (PureValueResolver<URI>) context -> {
       String value = context.pop();
       try {
-        return new URI(value);
+        return ResolveResult.success(new URI(value));
       } catch (URISyntaxException e) {
-        throw new InvalidURLException(context.parameter(), value);
+        CommandParameter parameter = context.parameter();
+        return ResolveResult.failure(() -> new InvalidURLException(parameter, value));
       }
     });
     registerContextResolver(CommandHandler.class, context -> this);
@@ -179,16 +207,8 @@ public abstract class BaseCommandHandler implements CommandHandler {
     registerContextResolver((Class) CommandHelp.class, new BaseCommandHelp.Resolver(this));
     setExceptionHandler(DefaultExceptionHandler.INSTANCE);
     registerCondition(CooldownCondition.INSTANCE);
-    registerParameterValidator(Number.class, (value, parameter, actor) -> {
-      Range range = parameter.getAnnotation(Range.class);
-      if (range != null) {
-        if (value.doubleValue() > range.max() || value.doubleValue() < range.min()) {
-          throw new NumberNotInRangeException(actor, parameter, value, range.min(),
-              range.max());
-        }
-      }
-    });
-    registerCondition((actor, command, arguments) -> command.checkPermission(actor));
+    registerParameterValidatorFactory(RangeValidatorFactory.INSTANCE);
+    registerCondition(PermissionCondition.INSTANCE);
     registerResponseHandler(String.class, (response, actor, command) -> {
       if (response != null) {
         actor.reply(response);
@@ -212,35 +232,60 @@ public abstract class BaseCommandHandler implements CommandHandler {
 
   @Override
   public @NotNull CommandHandler register(@NotNull Object... commands) {
-    for (Object command : commands) {
-      notNull(command, "Command");
-      if (command instanceof OrphanCommand) {
-        throw new IllegalArgumentException("You cannot register an OrphanCommand directly! " +
-            "You must wrap it using Orphans.path(...).handler(OrphanCommand)");
+    synchronized (registrationLock) {
+      for (Object command : commands) {
+        notNull(command, "Command");
+        if (command instanceof OrphanCommand) {
+          throw new IllegalArgumentException("You cannot register an OrphanCommand directly! " +
+              "You must wrap it using Orphans.path(...).handler(OrphanCommand)");
+        }
+        if (command instanceof Orphans) {
+          throw new IllegalArgumentException(
+              "You forgot to call .handler(OrphanCommand) in your Orphans.path(...)!");
+        }
+        if (command instanceof OrphanRegistry) {
+          setDependencies(((OrphanRegistry) command).getHandler());
+          CommandParser.parse(this, ((OrphanRegistry) command));
+        } else {
+          setDependencies(command);
+          CommandParser.parse(this, command);
+        }
       }
-      if (command instanceof Orphans) {
-        throw new IllegalArgumentException(
-            "You forgot to call .handler(OrphanCommand) in your Orphans.path(...)!");
+      for (BaseCommandCategory category : categories.values()) {
+        CommandPath categoryPath = category.getPath().getCategoryPath();
+        category.parent(categoryPath == null ? null : categories.get(categoryPath));
+        findPermission(category.defaultAction);
       }
-      if (command instanceof OrphanRegistry) {
-        setDependencies(((OrphanRegistry) command).getHandler());
-        CommandParser.parse(this, ((OrphanRegistry) command));
-      } else {
-        setDependencies(command);
-        CommandParser.parse(this, command);
+      for (CommandExecutable executable : executables.values()) {
+        findPermission(executable);
       }
-    }
-    for (BaseCommandCategory category : categories.values()) {
-      CommandPath categoryPath = category.getPath().getCategoryPath();
-      category.parent(categoryPath == null ? null : categories.get(categoryPath));
-      findPermission(category.defaultAction);
-    }
-    for (CommandExecutable executable : executables.values()) {
-      findPermission(executable);
+      publishRegistry();
     }
     return this;
   }
 
+  /**
+   * Publishes a new {@link CommandRegistry} snapshot, which is what commands are looked up from.
+   * This must be called whenever {@link #executables} or {@link #categories} get modified, while
+   * holding {@link #registrationLock}.
+   * <p>
+   * This rebuilds the whole registry. Registering and unregistering commands through this handler
+   * only update the parts that changed instead.
+   */
+  protected void compileRegistry() {
+    registry = CommandRegistry.snapshot(registry, executables, categories);
+    changedPaths.clear();
+  }
+
+  /**
+   * Publishes a new {@link CommandRegistry} that only rebuilds the {@link #changedPaths}, while
+   * holding {@link #registrationLock}.
+   */
+  private void publishRegistry() {
+    registry = CommandRegistry.update(registry, executables, categories, changedPaths);
+    changedPaths.clear();
+  }
+
   @Override
   public @NotNull Locale getLocale() {
     return translator.getLocale();
@@ -283,6 +328,34 @@ public abstract class BaseCommandHandler implements CommandHandler {
     return this;
   }
 
+  @Override
+  public @NotNull CommandHandler setCooldownStore(@NotNull CooldownStore store) {
+    notNull(store, "cooldown store");
+    cooldownStore = store;
+    return this;
+  }
+
+  @Override
+  public @NotNull CommandHandler setCommandMetrics(@NotNull CommandMetrics metrics) {
+    notNull(metrics, "command metrics");
+    commandMetrics = metrics;
+    return this;
+  }
+
+  @Override
+  public @NotNull CommandHandler setAsyncExecutor(@NotNull Executor executor) {
+    notNull(executor, "async executor");
+    asyncExecutor = executor;
+    return this;
+  }
+
+  @Override
+  public @NotNull CommandHandler setMainThreadExecutor(@NotNull Executor executor) {
+    notNull(executor, "main thread executor");
+    mainThreadExecutor = executor;
+    return this;
+  }
+
   @Override
   public @NotNull CommandHandler setExceptionHandler(@NotNull CommandExceptionHandler handler) {
     notNull(handler, "command exception handler");
@@ -306,6 +379,7 @@ public abstract class BaseCommandHandler implements CommandHandler {
     notNull(prefix, "prefix");
     notEmpty(prefix, "prefix cannot be empty!");
     switchPrefix = prefix;
+    compilePlans();
     return this;
   }
 
@@ -314,9 +388,26 @@ public abstract class BaseCommandHandler implements CommandHandler {
     notNull(prefix, "prefix");
     notEmpty(prefix, "prefix cannot be empty!");
     flagPrefix = prefix;
+    compilePlans();
     return this;
   }
 
+  /**
+   * Recompiles the {@link InvocationPlan}s of all registered commands, as they contain the switch
+   * and flag prefixes.
+   */
+  private void compilePlans() {
+    CommandRegistry registry = this.registry;
+    for (CommandExecutable executable : registry.executables.values()) {
+      executable.plan = InvocationPlan.compile(executable);
+    }
+    for (BaseCommandCategory category : registry.categories.values()) {
+      if (category.defaultAction != null) {
+        category.defaultAction.plan = InvocationPlan.compile(category.defaultAction);
+      }
+    }
+  }
+
   @Override
   public @NotNull <T> CommandHandler setHelpWriter(@NotNull CommandHelpWriter<T> helpWriter) {
     notNull(helpWriter, "command help writer");
@@ -330,6 +421,12 @@ public abstract class BaseCommandHandler implements CommandHandler {
     return this;
   }
 
+  @Override
+  public @NotNull CommandHandler disableUserErrorStackTraces() {
+    stacklessUserErrors = true;
+    return this;
+  }
+
   @Override
   public @NotNull CommandHandler failOnTooManyArguments() {
     failOnExtra = true;
@@ -447,6 +544,15 @@ public abstract class BaseCommandHandler implements CommandHandler {
   public @NotNull CommandHandler registerCondition(@NotNull CommandCondition condition) {
     notNull(condition, "condition");
     conditions.add(condition);
+    CommandRegistry registry = this.registry;
+    for (CommandExecutable executable : registry.executables.values()) {
+      executable.compileConditions();
+    }
+    for (BaseCommandCategory category : registry.categories.values()) {
+      if (category.defaultAction != null) {
+        category.defaultAction.compileConditions();
+      }
+    }
     return this;
   }
 
@@ -476,6 +582,36 @@ public abstract class BaseCommandHandler implements CommandHandler {
     return this;
   }
 
+  @Override
+  public @NotNull CommandHandler registerParameterValidatorFactory(
+      @NotNull ParameterValidatorFactory factory) {
+    notNull(factory, "validator factory");
+    validatorFactories.add(factory);
+    return this;
+  }
+
+  /**
+   * Returns the validators of the given parameter: those registered for its type, followed by
+   * the ones created by {@link ParameterValidatorFactory}ies.
+   *
+   * @param parameter The parameter to validate
+   * @param type      The parameter type
+   * @return A new list of validators
+   */
+  @SuppressWarnings("unchecked")
+  List<ParameterValidator<Object>> createValidators(@NotNull CommandParameter parameter,
+      @NotNull Class<?> type) {
+    List<ParameterValidator<Object>> result = new ArrayList<>(
+        validators.getFlexibleOrDefault(type, Collections.emptyList()));
+    for (ParameterValidatorFactory factory : validatorFactories) {
+      ParameterValidator<?> validator = factory.create(parameter);
+      if (validator != null) {
+        result.add((ParameterValidator<Object>) validator);
+      }
+    }
+    return result;
+  }
+
   @Override
   public @NotNull <T> CommandHandler registerResponseHandler(@NotNull Class<T> responseType,
       @NotNull ResponseHandler<T> handler) {
@@ -529,35 +665,43 @@ public abstract class BaseCommandHandler implements CommandHandler {
 
   @Override
   public ExecutableCommand getCommand(@NotNull CommandPath path) {
-    return executables.get(path);
+    return registry.executables.get(path);
   }
 
   @Override
   public CommandCategory getCategory(@NotNull CommandPath path) {
-    return categories.get(path);
+    return registry.categories.get(path);
   }
 
   @Override
   public @UnmodifiableView @NotNull Map<CommandPath, ExecutableCommand> getCommands() {
-    return Collections.unmodifiableMap(executables);
+    return registry.commands();
   }
 
   @Override
   public @UnmodifiableView @NotNull Map<CommandPath, CommandCategory> getCategories() {
-    return Collections.unmodifiableMap(categories);
+    return registry.categories();
   }
 
   public <T> ParameterResolver<T> getResolver(CommandParameter parameter) {
+    Resolver resolver = findResolver(parameter);
+    Cached cached = parameter.getAnnotation(Cached.class);
+    if (resolver != null && cached != null) {
+      resolver = resolver.cached(cached);
+    }
+    return (ParameterResolver<T>) resolver;
+  }
+
+  private Resolver findResolver(CommandParameter parameter) {
     for (ResolverFactory factory : factories) {
       Resolver resolver = factory.create(parameter);
       if (resolver == null) {
         continue;
       }
-      return (ParameterResolver<T>) resolver;
+      return resolver;
     }
     if (parameter.getType().isEnum()) {
-      return (ParameterResolver<T>) new Resolver(null,
-          EnumResolverFactory.INSTANCE.create(parameter));
+      return new Resolver(null, EnumResolverFactory.INSTANCE.create(parameter));
     }
     return null;
   }
@@ -572,6 +716,52 @@ public abstract class BaseCommandHandler implements CommandHandler {
     return methodCallerFactory;
   }
 
+  @Override
+  public @NotNull CooldownStore getCooldownStore() {
+    return cooldownStore;
+  }
+
+  @Override
+  public @NotNull CommandMetrics getCommandMetrics() {
+    return commandMetrics;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> @Nullable CachedValueResolver<T> getCachedResolver(@NotNull CommandParameter parameter) {
+    notNull(parameter, "parameter");
+    ParameterResolver<?> resolver = parameter.getResolver();
+    if (resolver instanceof Resolver
+        && ((Resolver) resolver).valueResolver() instanceof CachedValueResolver) {
+      return (CachedValueResolver<T>) ((Resolver) resolver).valueResolver();
+    }
+    return null;
+  }
+
+  @Override
+  public @NotNull @Unmodifiable Map<CommandParameter, CachedValueResolver<?>> getCachedResolvers() {
+    Map<CommandParameter, CachedValueResolver<?>> caches = new LinkedHashMap<>();
+    for (CommandExecutable executable : registry.executables.values()) {
+      for (CommandParameter parameter : executable.getParameters()) {
+        CachedValueResolver<?> cache = getCachedResolver(parameter);
+        if (cache != null) {
+          caches.put(parameter, cache);
+        }
+      }
+    }
+    return Collections.unmodifiableMap(caches);
+  }
+
+  @Override
+  public @NotNull Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  @Override
+  public @NotNull Executor getMainThreadExecutor() {
+    return mainThreadExecutor;
+  }
+
   @Override
   public <T> CommandHelpWriter<T> getHelpWriter() {
     return (CommandHelpWriter<T>) helpWriter;
@@ -581,44 +771,58 @@ public abstract class BaseCommandHandler implements CommandHandler {
     BaseCommandCategory parent = command.parent;
     if (parent != null) {
       parent.commands.remove(path);
-      if (parent.isEmpty()) {
+      if (parent.hasNoEntries()) {
         categories.remove(parent.path);
+        changedPaths.add(parent.path);
       }
     }
   }
 
-  private void unregister(CommandPath path, BaseCommandCategory category) {
+  private void unregister(CommandPath path, BaseCommandCategory category,
+      List<CommandPath> emptied) {
     BaseCommandCategory parent = category.parent;
     if (parent != null) {
-      parent.commands.remove(path);
-      if (parent.isEmpty()) {
-        categories.remove(parent.path);
+      parent.categories.remove(path);
+      if (parent.hasNoEntries()) {
+        emptied.add(parent.path); // removed later, as categories is being iterated
       }
     }
   }
 
   @Override
   public boolean unregister(@NotNull CommandPath path) {
-    boolean modified = false;
-    for (Iterator<Entry<CommandPath, CommandExecutable>> iterator = executables.entrySet()
-        .iterator(); iterator.hasNext(); ) {
-      Entry<CommandPath, CommandExecutable> entry = iterator.next();
-      if (entry.getKey().isChildOf(path)) {
-        modified = true;
-        iterator.remove();
-        unregister(path, entry.getValue());
+    synchronized (registrationLock) {
+      boolean modified = false;
+      for (Iterator<Entry<CommandPath, CommandExecutable>> iterator = executables.entrySet()
+          .iterator(); iterator.hasNext(); ) {
+        Entry<CommandPath, CommandExecutable> entry = iterator.next();
+        if (entry.getKey().isChildOf(path)) {
+          modified = true;
+          iterator.remove();
+          changedPaths.add(entry.getKey());
+          unregister(entry.getKey(), entry.getValue());
+        }
       }
-    }
-    for (Iterator<Entry<CommandPath, BaseCommandCategory>> iterator = categories.entrySet()
-        .iterator(); iterator.hasNext(); ) {
-      Entry<CommandPath, BaseCommandCategory> entry = iterator.next();
-      if (entry.getKey().isChildOf(path)) {
-        modified = true;
-        iterator.remove();
-        unregister(path, entry.getValue());
+      List<CommandPath> emptied = new ArrayList<>();
+      for (Iterator<Entry<CommandPath, BaseCommandCategory>> iterator = categories.entrySet()
+          .iterator(); iterator.hasNext(); ) {
+        Entry<CommandPath, BaseCommandCategory> entry = iterator.next();
+        if (entry.getKey().isChildOf(path)) {
+          modified = true;
+          iterator.remove();
+          changedPaths.add(entry.getKey());
+          unregister(entry.getKey(), entry.getValue(), emptied);
+        }
+      }
+      for (CommandPath emptiedPath : emptied) {
+        categories.remove(emptiedPath);
+        changedPaths.add(emptiedPath);
       }
+      if (modified && !deferPublishing) {
+        publishRegistry();
+      }
+      return modified;
     }
-    return modified;
   }
 
   @Override
@@ -631,18 +835,27 @@ public abstract class BaseCommandHandler implements CommandHandler {
     // it's important that we don't just do a blind executables.clear()
     // or categories.clear(), since some platforms register commands
     // in their own way (such as Bukkit).
-    getRootPaths().forEach(this::unregister);
+    synchronized (registrationLock) {
+      deferPublishing = true;
+      try {
+        getRootPaths().forEach(this::unregister);
+      } finally {
+        deferPublishing = false;
+        publishRegistry();
+      }
+    }
   }
 
   @Override
   public @NotNull Set<CommandPath> getRootPaths() {
     Set<CommandPath> paths = new HashSet<>();
-    for (CommandPath path : categories.keySet()) {
+    CommandRegistry registry = this.registry;
+    for (CommandPath path : registry.categories.keySet()) {
       if (path.isRoot()) {
         paths.add(path);
       }
     }
-    for (CommandPath path : executables.keySet()) {
+    for (CommandPath path : registry.executables.keySet()) {
       if (path.isRoot()) {
         paths.add(path);
       }
@@ -666,11 +879,31 @@ public abstract class BaseCommandHandler implements CommandHandler {
     return (Optional<T>) Optional.ofNullable(dispatcher.eval(actor, arguments));
   }
 
+  /**
+   * Dispatches the given arguments, reporting the time it took to tokenize
+   * them to the {@link CommandMetrics}.
+   *
+   * @param actor         The command actor
+   * @param arguments     The command arguments
+   * @param tokenizeNanos The time spent tokenizing the arguments, in nanoseconds
+   * @param <T>           The result type
+   * @return The result returned by invoking the command method
+   */
+  public <T> @NotNull Optional<@Nullable T> dispatch(@NotNull CommandActor actor,
+      @NotNull ArgumentStack arguments, long tokenizeNanos) {
+    return (Optional<T>) Optional.ofNullable(dispatcher.eval(actor, arguments, tokenizeNanos));
+  }
+
   @Override
   public <T> @NotNull Optional<@Nullable T> dispatch(@NotNull CommandActor actor,
       @NotNull String commandInput) {
     try {
-      return dispatch(actor, ArgumentStack.parse(commandInput));
+      if (commandMetrics == CommandMetrics.disabled()) {
+        return dispatch(actor, ArgumentStack.parse(commandInput), -1);
+      }
+      long start = System.nanoTime();
+      ArgumentStack arguments = ArgumentStack.parse(commandInput);
+      return dispatch(actor, arguments, System.nanoTime() - start);
     } catch (Throwable t) {
       getExceptionHandler().handleException(t, actor);
       return Optional.empty();
@@ -709,9 +942,15 @@ public abstract class BaseCommandHandler implements CommandHandler {
     }
   }
 
-  private ValueResolver<Boolean> bool() {
-    return context -> {
-      String v = context.pop();
+  private static final class BooleanResolver implements PureValueResolver<Boolean>,
+      PrimitiveValueResolver.OfBoolean {
+
+    private static final BooleanResolver INSTANCE = new BooleanResolver();
+
+    /**
+     * Returns 1 for true, 0 for false, or -1 if the input is not a boolean
+     */
+    private static int parse(String v) {
       switch (v.toLowerCase()) {
         case "true":
         case "yes":
@@ -720,15 +959,64 @@ public abstract class BaseCommandHandler implements CommandHandler {
         case "yeah":
         case "ofcourse":
         case "mhm":
-          return true;
+          return 1;
         case "false":
         case "no":
         case "n":
-          return false;
+          return 0;
         default:
-          throw new InvalidBooleanException(context.parameter(), v);
+          return -1;
       }
-    };
+    }
+
+    @Override
+    public boolean resolveBoolean(@NotNull ValueResolverContext context) {
+      String v = context.pop();
+      int value = parse(v);
+      if (value == -1) {
+        throw new InvalidBooleanException(context.parameter(), v);
+      }
+      return value == 1;
+    }
+
+    @Override
+    public Boolean resolve(@NotNull ValueResolverContext context) {
+      return resolveBoolean(context);
+    }
+
+    @Override
+    public @NotNull ResolveResult<Boolean> tryResolve(@NotNull ValueResolverContext context) {
+      String v = context.pop();
+      int value = parse(v);
+      if (value == -1) {
+        CommandParameter parameter = context.parameter();
+        return ResolveResult.failure(() -> new InvalidBooleanException(parameter, v));
+      }
+      return ResolveResult.success(value == 1);
+    }
+  }
+
+  private static final int[] UUID_GROUPS = {8, 4, 4, 4, 12};
+
+  /**
+   * Tests whether {@link UUID#fromString(String)} would accept the given value: five groups of
+   * hexadecimal digits separated by dashes.
+   */
+  private static boolean isUUID(String value) {
+    int group = 0;
+    int groupLength = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '-') {
+        if (groupLength == 0 || ++group == UUID_GROUPS.length) {
+          return false;
+        }
+        groupLength = 0;
+      } else if (Character.digit(c, 16) < 0 || ++groupLength > UUID_GROUPS[group]) {
+        return false;
+      }
+    }
+    return group == UUID_GROUPS.length - 1 && groupLength > 0;
   }
 
   private class WrappedExceptionHandler implements CommandExceptionHandler {
@@ -750,7 +1038,9 @@ public abstract class BaseCommandHandler implements CommandHandler {
       }
       @Nullable BiConsumer<CommandActor, Throwable> registered = exceptionsHandlers.getFlexible(
           throwable.getClass());
-      sanitizer.sanitize(throwable);
+      if (!(throwable instanceof UserErrorException) || !stacklessUserErrors) {
+        sanitizer.sanitize(throwable);
+      }
       if (registered != null) {
         registered.accept(actor, throwable);
         return;
@@ -758,5 +1048,4 @@ public abstract class BaseCommandHandler implements CommandHandler {
       handler.handleException(throwable, actor);
     }
   }
-
 }
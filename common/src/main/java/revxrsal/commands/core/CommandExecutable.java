@@ -30,6 +30,7 @@ import org.jetbrains.annotations.Unmodifiable;
 import revxrsal.commands.CommandHandler;
 import revxrsal.commands.command.*;
 import revxrsal.commands.core.reflect.MethodCaller.BoundMethodCaller;
+import revxrsal.commands.process.CommandCondition;
 import revxrsal.commands.process.ResponseHandler;
 import revxrsal.commands.util.Preconditions;
 
@@ -53,6 +54,7 @@ class CommandExecutable implements ExecutableCommand {
     Method method;
     AnnotationReader reader;
     boolean secret;
+    boolean async, invokeOnMainThread;
     BoundMethodCaller methodCaller;
     BaseCommandCategory parent;
     @SuppressWarnings("rawtypes")
@@ -60,6 +62,8 @@ class CommandExecutable implements ExecutableCommand {
     private CommandPermission permission = CommandPermission.ALWAYS_TRUE;
     @Unmodifiable List<CommandParameter> parameters;
     @Unmodifiable Map<Integer, CommandParameter> resolveableParameters;
+    InvocationPlan plan;
+    CommandCondition[] conditions;
 
     @Override
     public @NotNull String getName() {
@@ -165,6 +169,18 @@ class CommandExecutable implements ExecutableCommand {
     public void setPermission(@NotNull CommandPermission permission) {
         notNull(permission, "permission");
         this.permission = permission;
+        if (conditions != null)
+            compileConditions(); // conditions may apply differently to the new permission
+    }
+
+    /**
+     * Collects the registered {@link CommandCondition}s that apply to this command.
+     */
+    void compileConditions() {
+        conditions = ((BaseCommandHandler) handler).conditions.stream()
+                .filter(condition -> condition.appliesTo(this))
+                .map(condition -> condition.bindTo(this))
+                .toArray(CommandCondition[]::new);
     }
 
     @Override public String toString() {
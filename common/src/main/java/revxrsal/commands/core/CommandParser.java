@@ -161,7 +161,8 @@ final class CommandParser {
             /* Generate categories for default paths if not created already */
             for (CommandPath defaultPath : defaultPaths) {
                 for (BaseCommandCategory category : generateCategoriesForPath(handler, true, defaultPath)) {
-                    categories.putIfAbsent(category.path, category);
+                    if (categories.putIfAbsent(category.path, category) == null)
+                        handler.changedPaths.add(category.path);
                 }
             }
 
@@ -169,7 +170,8 @@ final class CommandParser {
 
                 /* Create categories beforehand, so we can insert commands into them with no problems */
                 for (BaseCommandCategory category : generateCategoriesForPath(handler, isDefault, path)) {
-                    categories.putIfAbsent(category.path, category);
+                    if (categories.putIfAbsent(category.path, category) == null)
+                        handler.changedPaths.add(category.path);
                 }
 
                 Set<CommandPath> defaultPathsAndNormalPath = new HashSet<>();
@@ -177,6 +179,7 @@ final class CommandParser {
                 defaultPathsAndNormalPath.addAll(defaultPaths);
                 for (CommandPath p : defaultPathsAndNormalPath) {
                     boolean registerAsDefault = defaultPaths.contains(p);
+                    handler.changedPaths.add(p);
                     CommandExecutable executable = new CommandExecutable();
                     if (!registerAsDefault)
                         categories.remove(p); // prevent having a category and command with the same path
@@ -188,6 +191,9 @@ final class CommandParser {
                     executable.method = method;
                     executable.reader = reader;
                     executable.secret = reader.contains(SecretCommand.class);
+                    RunAsync runAsync = reader.get(RunAsync.class);
+                    executable.async = runAsync != null;
+                    executable.invokeOnMainThread = runAsync != null && runAsync.mainThread();
                     executable.methodCaller = caller;
                     if (registerAsDefault)
                         executable.parent(categories.get(p), true);
@@ -198,6 +204,8 @@ final class CommandParser {
                     executable.resolveableParameters = executable.parameters.stream()
                             .filter(c -> c.getCommandIndex() != -1)
                             .collect(toMap(CommandParameter::getCommandIndex, c -> c));
+                    executable.plan = InvocationPlan.compile(executable);
+                    executable.compileConditions();
                     executable.usage = reader.get(Usage.class, Usage::value, () -> generateUsage(executable));
                     if (!registerAsDefault) {
                         putOrError(handler.executables, p, executable, "A command with path '" + p.toRealString() + "' already exists!");
@@ -326,7 +334,7 @@ final class CommandParser {
      * @return A set of all categories from the path
      */
     private static Set<BaseCommandCategory> generateCategoriesForPath(
-            CommandHandler handler,
+            BaseCommandHandler handler,
             boolean isDefault,
             @NotNull CommandPath path
     ) {
@@ -373,9 +381,7 @@ final class CommandParser {
         for (int i = 0; i < methodParameters.length; i++) {
             Parameter javaParameter = methodParameters[i];
             AnnotationReader paramAnns = AnnotationReader.create(handler, javaParameter);
-            List<ParameterValidator<Object>> validators = new ArrayList<>(
-                    handler.validators.getFlexibleOrDefault(javaParameter.getType(), emptyList())
-            );
+            List<ParameterValidator<Object>> validators = new ArrayList<>();
 
             String[] defaultValue = paramAnns.get(Default.class, Default::value);
             if (defaultValue == null || defaultValue.length == 0) {
@@ -414,6 +420,7 @@ final class CommandParser {
                     break;
                 }
             }
+            validators.addAll(handler.createValidators(param, javaParameter.getType()));
 
 
             /* Optional parmeters may be null, so make sure it isn't primitive as primitives cannot
@@ -0,0 +1,171 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import org.jetbrains.annotations.NotNull;
+import revxrsal.commands.command.CommandCategory;
+import revxrsal.commands.command.ExecutableCommand;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of all registered commands and categories.
+ * <p>
+ * {@link BaseCommandHandler#executables} and {@link BaseCommandHandler#categories}
+ * are only modified while registering or unregistering commands, after which
+ * a new snapshot is published in a single volatile write. Everything that
+ * may run on other threads (dispatching, tab completion, or permission checks
+ * from brigadier) reads the current snapshot instead, so it never observes
+ * a half-registered tree and never needs to lock.
+ * <p>
+ * The snapshot covers the structure of the tree: the commands and categories,
+ * and the children, parent and default action of every category, which are
+ * copied into a {@link BaseCommandCategory.Snapshot}. Each category holds its
+ * own snapshot, which is replaced right before the registry that includes it
+ * is published. It is shallow beyond that. The permission and conditions of a
+ * command may still be replaced in place when a later registration resolves
+ * its permission, and readers may see the new value before the next snapshot
+ * is published.
+ * <p>
+ * Registering or unregistering only rebuilds the categories and trie nodes
+ * on the paths that changed. Everything else is shared with the previous
+ * snapshot.
+ */
+final class CommandRegistry {
+
+    /**
+     * An empty registry, used before any command is registered
+     */
+    static final CommandRegistry EMPTY = new CommandRegistry(
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            CommandTrie.EMPTY
+    );
+
+    final Map<CommandPath, CommandExecutable> executables;
+    final Map<CommandPath, BaseCommandCategory> categories;
+    final CommandTrie trie;
+
+    private CommandRegistry(Map<CommandPath, CommandExecutable> executables,
+                            Map<CommandPath, BaseCommandCategory> categories,
+                            CommandTrie trie) {
+        this.executables = executables;
+        this.categories = categories;
+        this.trie = trie;
+    }
+
+    /**
+     * Returns an unmodifiable view of the commands, as exposed by the API
+     *
+     * @return The registered commands
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public @NotNull Map<CommandPath, ExecutableCommand> commands() {
+        return (Map) executables;
+    }
+
+    /**
+     * Returns an unmodifiable view of the categories, as exposed by the API
+     *
+     * @return The registered categories
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public @NotNull Map<CommandPath, CommandCategory> categories() {
+        return (Map) categories;
+    }
+
+    /**
+     * Creates a snapshot of the given commands and categories from scratch,
+     * including the current state of every category.
+     *
+     * @param previous    The snapshot being replaced
+     * @param executables The registered commands
+     * @param categories  The registered categories
+     * @return The snapshot
+     */
+    public static @NotNull CommandRegistry snapshot(@NotNull CommandRegistry previous,
+                                                    @NotNull Map<CommandPath, CommandExecutable> executables,
+                                                    @NotNull Map<CommandPath, BaseCommandCategory> categories) {
+        for (BaseCommandCategory category : previous.categories.values())
+            if (categories.get(category.path) != category)
+                category.published = BaseCommandCategory.Snapshot.EMPTY;
+        if (executables.isEmpty() && categories.isEmpty())
+            return EMPTY;
+        for (BaseCommandCategory category : categories.values())
+            category.published = category.snapshot();
+        Map<CommandPath, CommandExecutable> executablesCopy = Collections.unmodifiableMap(new HashMap<>(executables));
+        Map<CommandPath, BaseCommandCategory> categoriesCopy = Collections.unmodifiableMap(new HashMap<>(categories));
+        return new CommandRegistry(
+                executablesCopy,
+                categoriesCopy,
+                CommandTrie.compile(executablesCopy, categoriesCopy)
+        );
+    }
+
+    /**
+     * Creates a snapshot that only rebuilds what is on the given paths. The
+     * categories at these paths and their parents get new snapshots, and
+     * the trie is updated at these paths. Everything else is shared with
+     * the previous snapshot.
+     *
+     * @param previous    The snapshot being replaced
+     * @param executables The registered commands
+     * @param categories  The registered categories
+     * @param changed     The paths whose command or category changed
+     * @return The snapshot
+     */
+    public static @NotNull CommandRegistry update(@NotNull CommandRegistry previous,
+                                                  @NotNull Map<CommandPath, CommandExecutable> executables,
+                                                  @NotNull Map<CommandPath, BaseCommandCategory> categories,
+                                                  @NotNull Set<CommandPath> changed) {
+        Set<BaseCommandCategory> outdated = new HashSet<>();
+        for (CommandPath path : changed) {
+            BaseCommandCategory removed = previous.categories.get(path);
+            if (removed != null && categories.get(path) != removed)
+                removed.published = BaseCommandCategory.Snapshot.EMPTY;
+            BaseCommandCategory category = categories.get(path);
+            if (category != null)
+                outdated.add(category);
+            CommandPath parentPath = path.getCategoryPath();
+            BaseCommandCategory parent = parentPath == null ? null : categories.get(parentPath);
+            if (parent != null)
+                outdated.add(parent);
+        }
+        if (executables.isEmpty() && categories.isEmpty())
+            return EMPTY;
+        for (BaseCommandCategory category : outdated)
+            category.published = category.snapshot();
+        Map<CommandPath, CommandExecutable> executablesCopy = Collections.unmodifiableMap(new HashMap<>(executables));
+        Map<CommandPath, BaseCommandCategory> categoriesCopy = Collections.unmodifiableMap(new HashMap<>(categories));
+        return new CommandRegistry(
+                executablesCopy,
+                categoriesCopy,
+                CommandTrie.update(previous.trie, changed, executablesCopy, categoriesCopy)
+        );
+    }
+}
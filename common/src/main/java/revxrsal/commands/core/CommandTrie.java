@@ -0,0 +1,217 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * An immutable prefix tree of all registered commands and categories, where
+ * every node represents a single literal of a {@link CommandPath}.
+ * <p>
+ * This is compiled as part of every {@link CommandRegistry} snapshot, so
+ * that resolving a command from the input only costs a single walk of the
+ * arguments rather than hashing every intermediate path.
+ */
+final class CommandTrie {
+
+    /**
+     * An empty trie, used before any command is registered
+     */
+    static final CommandTrie EMPTY = new CommandTrie(Node.EMPTY);
+
+    private final Node root;
+
+    private CommandTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the root node of this trie. The root itself does not
+     * represent any command.
+     *
+     * @return The root node
+     */
+    public @NotNull Node root() {
+        return root;
+    }
+
+    /**
+     * Compiles a new trie from the given commands and categories
+     *
+     * @param executables The registered commands
+     * @param categories  The registered categories
+     * @return The compiled trie
+     */
+    public static @NotNull CommandTrie compile(@NotNull Map<CommandPath, CommandExecutable> executables,
+                                              @NotNull Map<CommandPath, BaseCommandCategory> categories) {
+        if (executables.isEmpty() && categories.isEmpty())
+            return EMPTY;
+        MutableNode root = new MutableNode();
+        for (Entry<CommandPath, BaseCommandCategory> entry : categories.entrySet())
+            root.walk(entry.getKey()).category = entry.getValue();
+        for (Entry<CommandPath, CommandExecutable> entry : executables.entrySet())
+            root.walk(entry.getKey()).executable = entry.getValue();
+        Node frozen = root.freeze();
+        return new CommandTrie(frozen == null ? Node.EMPTY : frozen);
+    }
+
+    /**
+     * Updates the given trie at the given paths. Only the nodes on these
+     * paths are copied, every other node is shared with the previous trie.
+     *
+     * @param previous    The trie to update
+     * @param changed     The paths whose command or category changed
+     * @param executables The registered commands
+     * @param categories  The registered categories
+     * @return The updated trie
+     */
+    public static @NotNull CommandTrie update(@NotNull CommandTrie previous,
+                                             @NotNull Collection<CommandPath> changed,
+                                             @NotNull Map<CommandPath, CommandExecutable> executables,
+                                             @NotNull Map<CommandPath, BaseCommandCategory> categories) {
+        if (executables.isEmpty() && categories.isEmpty())
+            return EMPTY;
+        if (changed.isEmpty())
+            return previous;
+        MutableNode root = new MutableNode(previous.root);
+        for (CommandPath path : changed) {
+            MutableNode node = root.walk(path);
+            node.executable = executables.get(path);
+            node.category = categories.get(path);
+        }
+        Node frozen = root.freeze();
+        return new CommandTrie(frozen == null ? Node.EMPTY : frozen);
+    }
+
+    /**
+     * Represents a single literal in the command tree. A node may hold a command,
+     * a category, both, or neither (in case it only leads to deeper nodes).
+     */
+    static final class Node {
+
+        private static final Node EMPTY = new Node(Collections.emptyMap(), null, null);
+
+        private final Map<String, Node> children;
+        private final @Nullable CommandExecutable executable;
+        private final @Nullable BaseCommandCategory category;
+
+        private Node(Map<String, Node> children,
+                     @Nullable CommandExecutable executable,
+                     @Nullable BaseCommandCategory category) {
+            this.children = children;
+            this.executable = executable;
+            this.category = category;
+        }
+
+        /**
+         * Returns the child node of the given literal. This is case-insensitive.
+         *
+         * @param literal The literal to look up
+         * @return The child node, or null if none matches
+         */
+        public @Nullable Node child(@NotNull String literal) {
+            if (children.isEmpty()) return null;
+            return children.get(literal.toLowerCase());
+        }
+
+        /**
+         * Returns the command registered at this node's path
+         *
+         * @return The command, or null if none
+         */
+        public @Nullable CommandExecutable executable() {
+            return executable;
+        }
+
+        /**
+         * Returns the category registered at this node's path
+         *
+         * @return The category, or null if none
+         */
+        public @Nullable BaseCommandCategory category() {
+            return category;
+        }
+    }
+
+    /**
+     * A mutable node used while compiling the trie. When updating a trie,
+     * children that were not walked into are kept as the previous
+     * {@link Node}s, and only become mutable once walked into.
+     */
+    private static final class MutableNode {
+
+        private final Map<String, Object> children;
+        private CommandExecutable executable;
+        private BaseCommandCategory category;
+
+        MutableNode() {
+            children = new HashMap<>();
+        }
+
+        MutableNode(Node node) {
+            children = new HashMap<>(node.children);
+            executable = node.executable;
+            category = node.category;
+        }
+
+        MutableNode walk(CommandPath path) {
+            MutableNode node = this;
+            for (String literal : path)
+                node = node.child(literal);
+            return node;
+        }
+
+        private MutableNode child(String literal) {
+            Object child = children.get(literal);
+            if (child instanceof MutableNode)
+                return (MutableNode) child;
+            MutableNode mutable = child == null ? new MutableNode() : new MutableNode((Node) child);
+            children.put(child == null ? literal.intern() : literal, mutable);
+            return mutable;
+        }
+
+        /**
+         * Freezes this node, or returns null if it leads to no command or
+         * category anymore
+         */
+        @Nullable Node freeze() {
+            Map<String, Node> frozen = children.isEmpty() ? Collections.emptyMap() : new HashMap<>(children.size() * 2);
+            children.forEach((literal, child) -> {
+                Node node = child instanceof MutableNode ? ((MutableNode) child).freeze() : (Node) child;
+                if (node != null)
+                    frozen.put(literal, node);
+            });
+            if (frozen.isEmpty() && executable == null && category == null)
+                return null;
+            return new Node(frozen.isEmpty() ? Collections.emptyMap() : frozen, executable, category);
+        }
+    }
+}
@@ -24,10 +24,12 @@
 package revxrsal.commands.core;
 
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import org.jetbrains.annotations.NotNull;
 import revxrsal.commands.CommandHandler;
 import revxrsal.commands.command.CommandActor;
 import revxrsal.commands.command.ExecutableCommand;
+import revxrsal.commands.process.AsyncExecutor;
 import revxrsal.commands.process.ResponseHandler;
 
 /**
@@ -46,6 +48,11 @@ final class CompletionStageResponseHandler implements ResponseHandler<Completion
   @Override
   public void handleResponse(CompletionStage<Object> response, @NotNull CommandActor actor,
       @NotNull ExecutableCommand command) {
+    Executor executor = handler.getAsyncExecutor();
+    if (executor instanceof AsyncExecutor && command instanceof CommandExecutable
+        && ((CommandExecutable) command).async) {
+      ((AsyncExecutor) executor).track(response);
+    }
     response.whenComplete((value, exception) -> {
       if (exception != null) {
         handler.getExceptionHandler().handleException(exception, actor);
@@ -24,11 +24,6 @@
 package revxrsal.commands.core;
 
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 import revxrsal.commands.annotation.Cooldown;
@@ -36,13 +31,23 @@ import revxrsal.commands.command.CommandActor;
 import revxrsal.commands.command.ExecutableCommand;
 import revxrsal.commands.exception.CooldownException;
 import revxrsal.commands.process.CommandCondition;
+import revxrsal.commands.process.CooldownStore;
 
 enum CooldownCondition implements CommandCondition {
 
   INSTANCE;
 
-  private static final ScheduledExecutorService COOLDOWN_POOL = Executors.newSingleThreadScheduledExecutor();
-  private final Map<UUID, Map<Integer, Long>> cooldowns = new ConcurrentHashMap<>();
+  @Override
+  public boolean appliesTo(@NotNull ExecutableCommand command) {
+    Cooldown cooldown = command.getAnnotation(Cooldown.class);
+    return cooldown != null && cooldown.value() != 0;
+  }
+
+  @Override
+  public @NotNull CommandCondition bindTo(@NotNull ExecutableCommand command) {
+    Cooldown cooldown = command.getAnnotation(Cooldown.class);
+    return new Bound(cooldown.unit().toMillis(cooldown.value()));
+  }
 
   @Override
   public void test(@NotNull CommandActor actor, @NotNull ExecutableCommand command,
@@ -51,24 +56,36 @@ enum CooldownCondition implements CommandCondition {
     if (cooldown == null || cooldown.value() == 0) {
       return;
     }
-    UUID uuid = actor.getUniqueId();
-    Map<Integer, Long> spans = get(uuid);
-    Long created = spans.get(command.getId());
-    if (created == null) {
-      spans.put(command.getId(), System.currentTimeMillis());
-      COOLDOWN_POOL.schedule(() -> spans.remove(command.getId()), cooldown.value(),
-          cooldown.unit());
+    test(actor, command, cooldown.unit().toMillis(cooldown.value()));
+  }
+
+  private static void test(CommandActor actor, ExecutableCommand command, long cooldownMillis) {
+    CooldownStore store = command.getCommandHandler().getCooldownStore();
+    long left = store.acquire(actor.getUniqueId(), command.getId(), cooldownMillis);
+    if (left == 0) {
       return;
     }
-    long passed = System.currentTimeMillis() - created;
-    long left = cooldown.unit().toMillis(cooldown.value()) - passed;
-    if (left > 0 && left < 1000) {
+    if (left < 1000) {
       left = 1000L; // for formatting
     }
     throw new CooldownException(left);
   }
 
-  private Map<Integer, Long> get(@NotNull UUID uuid) {
-    return cooldowns.computeIfAbsent(uuid, u -> new ConcurrentHashMap<>());
+  /**
+   * The condition of a single command, with its cooldown already read from its annotation
+   */
+  private static final class Bound implements CommandCondition {
+
+    private final long cooldownMillis;
+
+    private Bound(long cooldownMillis) {
+      this.cooldownMillis = cooldownMillis;
+    }
+
+    @Override
+    public void test(@NotNull CommandActor actor, @NotNull ExecutableCommand command,
+        @NotNull @Unmodifiable List<String> arguments) {
+      CooldownCondition.test(actor, command, cooldownMillis);
+    }
   }
 }
@@ -25,8 +25,6 @@ package revxrsal.commands.core;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import lombok.Setter;
 import org.jetbrains.annotations.ApiStatus;
@@ -56,9 +54,8 @@ public final class EitherParameter extends ForwardingCommandParameter {
     rawType = Primitives.getRawType(type);
     suggestionProvider = ((BaseAutoCompleter) delegate.getCommandHandler()
         .getAutoCompleter()).getProvider(this);
-    validators = new ArrayList<>(
-        ((BaseCommandHandler) delegate.getCommandHandler()).validators.getFlexibleOrDefault(rawType,
-            Collections.emptyList()));
+    validators = ((BaseCommandHandler) delegate.getCommandHandler())
+        .createValidators(this, rawType);
   }
 
   private ParameterResolver<Object> resolver;
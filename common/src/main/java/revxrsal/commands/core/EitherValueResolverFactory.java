@@ -30,7 +30,10 @@ import revxrsal.commands.command.ArgumentStack;
 import revxrsal.commands.command.CommandParameter;
 import revxrsal.commands.core.BaseCommandDispatcher.ValueContextR;
 import revxrsal.commands.process.ParameterResolver;
+import revxrsal.commands.process.ResolveResult;
+import revxrsal.commands.process.ResultValueResolver;
 import revxrsal.commands.process.ValueResolver;
+import revxrsal.commands.process.ValueResolver.ValueResolverContext;
 import revxrsal.commands.process.ValueResolverFactory;
 import revxrsal.commands.util.Either;
 
@@ -49,17 +52,34 @@ enum EitherValueResolverFactory implements ValueResolverFactory {
     EitherParameter first = generate(parameter, types[0]);
     EitherParameter second = generate(parameter, types[1]);
 
-    return context -> {
+    return (ResultValueResolver<Either<Object, Object>>) context -> {
       ArgumentStack original = context.arguments().copy();
-      try {
-        return Either.first(first.getResolver().resolve(context));
-      } catch (Throwable t) {
-        ((ValueContextR) context).argumentStack = original;
-        return Either.second(second.getResolver().resolve(context));
+      ResolveResult<?> result = tryResolve(first, context);
+      if (result.isSuccess()) {
+        return ResolveResult.success(Either.first(result.getValue()));
       }
+      ((ValueContextR) context).argumentStack = original;
+      result = tryResolve(second, context);
+      if (result.isSuccess()) {
+        return ResolveResult.success(Either.second(result.getValue()));
+      }
+      return (ResolveResult<Either<Object, Object>>) result;
     };
   }
 
+  private static ResolveResult<?> tryResolve(EitherParameter parameter,
+      ValueResolverContext context) {
+    ParameterResolver<Object> resolver = parameter.getResolver();
+    if (resolver instanceof Resolver) {
+      return ((Resolver) resolver).tryResolve(context);
+    }
+    try {
+      return ResolveResult.success(resolver.resolve(context));
+    } catch (Throwable t) {
+      return ResolveResult.failure(t);
+    }
+  }
+
   private static EitherParameter generate(CommandParameter parameter, Type type) {
     EitherParameter either = new EitherParameter(parameter, type);
     ParameterResolver<Object> resolver = ((BaseCommandHandler) parameter.getCommandHandler()).getResolver(
@@ -30,6 +30,8 @@ import org.jetbrains.annotations.Nullable;
 import revxrsal.commands.annotation.CaseSensitive;
 import revxrsal.commands.command.CommandParameter;
 import revxrsal.commands.exception.EnumNotFoundException;
+import revxrsal.commands.process.PureValueResolver;
+import revxrsal.commands.process.ResolveResult;
 import revxrsal.commands.process.ValueResolver;
 import revxrsal.commands.process.ValueResolverFactory;
 
@@ -53,13 +55,13 @@ enum EnumResolverFactory implements ValueResolverFactory {
         values.put(enumConstant.name().toLowerCase(), enumConstant);
       }
     }
-    return (ValueResolver<Enum<?>>) context -> {
+    return (PureValueResolver<Enum<?>>) context -> {
       String value = context.pop();
       Enum<?> v = values.get(caseSensitive ? value : value.toLowerCase());
       if (v == null) {
-        throw new EnumNotFoundException(parameter, value);
+        return ResolveResult.failure(() -> new EnumNotFoundException(parameter, value));
       }
-      return v;
+      return ResolveResult.success(v);
     };
   }
 }
@@ -56,6 +56,6 @@ enum EnumSuggestionProviderFactory implements SuggestionProviderFactory {
       }
       suggestions.add(enums[i].name().toLowerCase());
     }
-    return SuggestionProvider.of(suggestions);
+    return SuggestionProvider.sorted(suggestions);
   }
 }
@@ -0,0 +1,112 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.command.CommandActor;
+import revxrsal.commands.command.CommandParameter;
+import revxrsal.commands.command.ExecutableCommand;
+import revxrsal.commands.exception.CommandInvocationException;
+
+/**
+ * Emits JDK Flight Recorder events for command dispatch, argument resolution,
+ * tab completion and brigadier registration.
+ * <p>
+ * Each {@code begin} method returns null unless its event is enabled in a
+ * running recording, and each {@code commit} method ignores a null event, so
+ * an idle recorder costs a single check per call. The event classes are only
+ * loaded if {@code jdk.jfr} is available, which keeps this class usable on
+ * Java 8 runtimes without Flight Recorder.
+ */
+@ApiStatus.Internal
+public final class FlightRecorderEvents {
+
+  private static final boolean AVAILABLE = isAvailable();
+
+  private FlightRecorderEvents() {
+  }
+
+  private static boolean isAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      JfrEvents.init();
+      return true;
+    } catch (Throwable t) {
+      return false;
+    }
+  }
+
+  public static @Nullable Object beginDispatch() {
+    return AVAILABLE ? JfrEvents.beginDispatch() : null;
+  }
+
+  public static void commitDispatch(@Nullable Object event, @Nullable ExecutableCommand command,
+      @NotNull CommandActor actor, @Nullable Throwable error) {
+    if (event == null) {
+      return;
+    }
+    if (error instanceof CommandInvocationException && error.getCause() != null) {
+      error = error.getCause();
+    }
+    JfrEvents.commitDispatch(event,
+        command == null ? null : command.getPath().toRealString(),
+        command == null ? -1 : command.getId(),
+        actor.getClass().getName(),
+        error == null ? "success" : error.getClass().getName());
+  }
+
+  public static @Nullable Object beginArgument() {
+    return AVAILABLE ? JfrEvents.beginArgument() : null;
+  }
+
+  public static void commitArgument(@Nullable Object event, @NotNull CommandParameter parameter) {
+    if (event == null) {
+      return;
+    }
+    JfrEvents.commitArgument(event, parameter.getDeclaringCommand().getPath().toRealString(),
+        parameter.getName(), parameter.getType().getName());
+  }
+
+  public static @Nullable Object beginCompletion() {
+    return AVAILABLE ? JfrEvents.beginCompletion() : null;
+  }
+
+  public static void commitCompletion(@Nullable Object event, int inputLength, int results) {
+    if (event != null) {
+      JfrEvents.commitCompletion(event, inputLength, results);
+    }
+  }
+
+  public static @Nullable Object beginBrigadierRebuild() {
+    return AVAILABLE ? JfrEvents.beginBrigadierRebuild() : null;
+  }
+
+  public static void commitBrigadierRebuild(@Nullable Object event, int commands) {
+    if (event != null) {
+      JfrEvents.commitBrigadierRebuild(event, commands);
+    }
+  }
+}
@@ -0,0 +1,383 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import static revxrsal.commands.util.Preconditions.notNull;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import revxrsal.commands.command.ExecutableCommand;
+import revxrsal.commands.exception.CommandInvocationException;
+import revxrsal.commands.process.CommandMetrics;
+
+/**
+ * The default {@link CommandMetrics}.
+ * <p>
+ * Each command gets a set of histograms the first time it is dispatched,
+ * and each histogram allocates its buckets the first time it records a value.
+ * A histogram splits every power of two into 16 linear buckets, so a value
+ * is counted with a single atomic increment and is reported with a relative
+ * error of at most 1/16. Values of 2^36 nanoseconds (about 68 seconds) and
+ * above are counted in the last bucket.
+ *
+ * @see CommandMetrics#histograms()
+ */
+@ApiStatus.Internal
+public final class HistogramCommandMetrics implements CommandMetrics {
+
+  public static final CommandMetrics DISABLED = new Disabled();
+
+  private static final Stage[] STAGES = Stage.values();
+
+  private final Map<Integer, Recorder> recorders = new ConcurrentHashMap<>();
+
+  @Override
+  public void record(@NotNull ExecutableCommand command, long @NotNull [] stageNanos,
+      @Nullable Throwable error) {
+    Recorder recorder = recorders.get(command.getId());
+    if (recorder == null) {
+      recorder = recorders.computeIfAbsent(command.getId(),
+          id -> new Recorder(id, command.getPath().toRealString()));
+    }
+    recorder.record(stageNanos, error);
+  }
+
+  @Override
+  public @Nullable Snapshot snapshot(@NotNull ExecutableCommand command) {
+    notNull(command, "command");
+    Recorder recorder = recorders.get(command.getId());
+    return recorder == null ? null : recorder.snapshot();
+  }
+
+  @Override
+  public @NotNull @Unmodifiable Collection<Snapshot> snapshots() {
+    List<Snapshot> snapshots = new ArrayList<>(recorders.size());
+    for (Recorder recorder : recorders.values()) {
+      snapshots.add(recorder.snapshot());
+    }
+    snapshots.sort(Comparator.comparing(Snapshot::path));
+    return Collections.unmodifiableList(snapshots);
+  }
+
+  @Override
+  public void dump(@NotNull File file) throws IOException {
+    notNull(file, "file");
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      writer.write("# Command latencies in microseconds\n");
+      for (Snapshot snapshot : snapshots()) {
+        writer.write(String.format(Locale.ROOT, "%n%s (id %d): %d invocations, %d errors%n",
+            snapshot.path(), snapshot.commandId(), snapshot.invocations(), snapshot.errors()));
+        for (Map.Entry<Class<? extends Throwable>, Long> error : snapshot.errorsByType().entrySet()) {
+          writer.write(String.format(Locale.ROOT, "  %-40s %10d%n",
+              error.getKey().getName(), error.getValue()));
+        }
+        writer.write(String.format(Locale.ROOT, "  %-12s %10s %10s %10s %10s %10s %10s%n",
+            "stage", "count", "mean", "p50", "p90", "p99", "max"));
+        for (Stage stage : STAGES) {
+          writeLatency(writer, stage.name().toLowerCase(Locale.ROOT), snapshot.latency(stage));
+        }
+        writeLatency(writer, "total", snapshot.totalLatency());
+      }
+    }
+  }
+
+  private static void writeLatency(BufferedWriter writer, String name, Latency latency)
+      throws IOException {
+    writer.write(String.format(Locale.ROOT, "  %-12s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+        name, latency.count(), latency.mean() / 1000, latency.percentile(50) / 1000.0,
+        latency.percentile(90) / 1000.0, latency.percentile(99) / 1000.0,
+        latency.max() / 1000.0));
+  }
+
+  @Override
+  public void reset() {
+    recorders.clear();
+  }
+
+  private static final class Recorder {
+
+    private final int commandId;
+    private final String path;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<Class<? extends Throwable>, LongAdder> errorsByType = new ConcurrentHashMap<>();
+    private final Histogram[] stages = new Histogram[STAGES.length];
+    private final Histogram total = new Histogram();
+
+    Recorder(int commandId, String path) {
+      this.commandId = commandId;
+      this.path = path;
+      for (int i = 0; i < stages.length; i++) {
+        stages[i] = new Histogram();
+      }
+    }
+
+    void record(long[] stageNanos, @Nullable Throwable error) {
+      invocations.increment();
+      long sum = 0;
+      for (int i = 0; i < stages.length; i++) {
+        long nanos = stageNanos[i];
+        if (nanos >= 0) {
+          stages[i].record(nanos);
+          sum += nanos;
+        }
+      }
+      total.record(sum);
+      if (error != null) {
+        if (error instanceof CommandInvocationException && error.getCause() != null) {
+          error = error.getCause();
+        }
+        errors.increment();
+        errorsByType.computeIfAbsent(error.getClass(), t -> new LongAdder()).increment();
+      }
+    }
+
+    Snapshot snapshot() {
+      Map<Class<? extends Throwable>, Long> errorCounts = new LinkedHashMap<>();
+      errorsByType.entrySet().stream()
+          .sorted(Comparator.comparing(e -> e.getKey().getName()))
+          .forEach(e -> errorCounts.put(e.getKey(), e.getValue().sum()));
+      Latency[] latencies = new Latency[stages.length];
+      for (int i = 0; i < stages.length; i++) {
+        latencies[i] = stages[i].snapshot();
+      }
+      return new CommandSnapshot(commandId, path, invocations.sum(), errors.sum(),
+          Collections.unmodifiableMap(errorCounts), latencies, total.snapshot());
+    }
+  }
+
+  private static final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 35;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    /**
+     * Allocated on the first recorded value, as stages a command never
+     * reaches would otherwise hold {@link #BUCKETS} empty counters.
+     */
+    private volatile AtomicLongArray buckets;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long value) {
+      AtomicLongArray buckets = this.buckets;
+      if (buckets == null) {
+        buckets = allocateBuckets();
+      }
+      buckets.incrementAndGet(index(value));
+      sum.add(value);
+      min.accumulate(value);
+      max.accumulate(value);
+    }
+
+    private synchronized AtomicLongArray allocateBuckets() {
+      if (buckets == null) {
+        buckets = new AtomicLongArray(BUCKETS);
+      }
+      return buckets;
+    }
+
+    static int index(long value) {
+      if (value < SUB_BUCKETS) {
+        return (int) value;
+      }
+      int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+      if (exponent == MAX_EXPONENT && value >>> (MAX_EXPONENT + 1) != 0) {
+        return BUCKETS - 1;
+      }
+      int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+      return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value that is counted in the given bucket
+     */
+    static long highestValue(int index) {
+      if (index < SUB_BUCKETS) {
+        return index;
+      }
+      int shift = index / SUB_BUCKETS - 1;
+      long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+      return lowest + (1L << shift) - 1;
+    }
+
+    LatencySnapshot snapshot() {
+      AtomicLongArray buckets = this.buckets;
+      if (buckets == null) {
+        return new LatencySnapshot(new long[0], 0, 0, 0, 0);
+      }
+      long[] counts = new long[BUCKETS];
+      long count = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        counts[i] = buckets.get(i);
+        count += counts[i];
+      }
+      return new LatencySnapshot(counts, count, count == 0 ? 0 : min.get(), max.get(), sum.sum());
+    }
+  }
+
+  private static final class LatencySnapshot implements Latency {
+
+    private final long[] counts;
+    private final long count, min, max, sum;
+
+    LatencySnapshot(long[] counts, long count, long min, long max, long sum) {
+      this.counts = counts;
+      this.count = count;
+      this.min = min;
+      this.max = max;
+      this.sum = sum;
+    }
+
+    @Override public long count() {
+      return count;
+    }
+
+    @Override public long min() {
+      return min;
+    }
+
+    @Override public long max() {
+      return max;
+    }
+
+    @Override public double mean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    @Override public long percentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= target) {
+          return Math.max(min, Math.min(Histogram.highestValue(i), max));
+        }
+      }
+      return max;
+    }
+  }
+
+  private static final class CommandSnapshot implements Snapshot {
+
+    private final int commandId;
+    private final String path;
+    private final long invocations, errors;
+    private final Map<Class<? extends Throwable>, Long> errorsByType;
+    private final Latency[] stages;
+    private final Latency total;
+
+    CommandSnapshot(int commandId, String path, long invocations, long errors,
+        Map<Class<? extends Throwable>, Long> errorsByType, Latency[] stages, Latency total) {
+      this.commandId = commandId;
+      this.path = path;
+      this.invocations = invocations;
+      this.errors = errors;
+      this.errorsByType = errorsByType;
+      this.stages = stages;
+      this.total = total;
+    }
+
+    @Override public int commandId() {
+      return commandId;
+    }
+
+    @Override public @NotNull String path() {
+      return path;
+    }
+
+    @Override public long invocations() {
+      return invocations;
+    }
+
+    @Override public long errors() {
+      return errors;
+    }
+
+    @Override public @NotNull Map<Class<? extends Throwable>, Long> errorsByType() {
+      return errorsByType;
+    }
+
+    @Override public @NotNull Latency latency(@NotNull Stage stage) {
+      return stages[stage.ordinal()];
+    }
+
+    @Override public @NotNull Latency totalLatency() {
+      return total;
+    }
+  }
+
+  private static final class Disabled implements CommandMetrics {
+
+    @Override
+    public void record(@NotNull ExecutableCommand command, long @NotNull [] stageNanos,
+        @Nullable Throwable error) {
+    }
+
+    @Override
+    public @Nullable Snapshot snapshot(@NotNull ExecutableCommand command) {
+      return null;
+    }
+
+    @Override
+    public @NotNull @Unmodifiable Collection<Snapshot> snapshots() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void dump(@NotNull File file) throws IOException {
+      Files.write(file.toPath(), Collections.singletonList("# Command metrics are disabled"),
+          StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void reset() {
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import static revxrsal.commands.util.Preconditions.checkArgument;
+import static revxrsal.commands.util.Preconditions.notNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.process.AsyncExecutor;
+
+/**
+ * The default {@link AsyncExecutor}, which wraps either a virtual thread
+ * factory or a platform thread pool and counts the tasks going through it.
+ *
+ * @see AsyncExecutor#virtualThreads()
+ * @see AsyncExecutor#bounded(int, int)
+ */
+@ApiStatus.Internal
+public final class InstrumentedExecutor implements AsyncExecutor {
+
+  private static final String THREAD_NAME = "Lamp Async Dispatcher #";
+  private static final @Nullable ThreadFactory VIRTUAL_THREADS = virtualThreadFactory();
+
+  private final Executor delegate;
+  private final boolean virtual;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicInteger running = new AtomicInteger();
+
+  private InstrumentedExecutor(Executor delegate, boolean virtual) {
+    this.delegate = delegate;
+    this.virtual = virtual;
+  }
+
+  public static @NotNull AsyncExecutor virtualThreads() {
+    if (VIRTUAL_THREADS == null) {
+      return new InstrumentedExecutor(Executors.newCachedThreadPool(daemonThreads()), false);
+    }
+    return new InstrumentedExecutor(task -> VIRTUAL_THREADS.newThread(task).start(), true);
+  }
+
+  public static @NotNull AsyncExecutor bounded(int threads, int queueCapacity) {
+    checkArgument(threads > 0, "threads must be positive");
+    checkArgument(queueCapacity > 0, "queue capacity must be positive");
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(queueCapacity), daemonThreads());
+    pool.allowCoreThreadTimeOut(true);
+    return new InstrumentedExecutor(pool, false);
+  }
+
+  private static ThreadFactory daemonThreads() {
+    AtomicInteger count = new AtomicInteger();
+    return task -> {
+      Thread thread = new Thread(task, THREAD_NAME + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  @Override
+  public void execute(@NotNull Runnable task) {
+    notNull(task, "task");
+    queued.incrementAndGet();
+    try {
+      delegate.execute(() -> {
+        queued.decrementAndGet();
+        running.incrementAndGet();
+        try {
+          task.run();
+        } finally {
+          running.decrementAndGet();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      queued.decrementAndGet();
+      throw e;
+    }
+  }
+
+  @Override
+  public void track(@NotNull CompletionStage<?> stage) {
+    notNull(stage, "stage");
+    running.incrementAndGet();
+    stage.whenComplete((value, exception) -> running.decrementAndGet());
+  }
+
+  @Override
+  public int queueDepth() {
+    return queued.get();
+  }
+
+  @Override
+  public int inFlight() {
+    return running.get();
+  }
+
+  @Override
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  @Override
+  public String toString() {
+    return "InstrumentedExecutor(virtual=" + virtual + ", queueDepth=" + queued.get()
+        + ", inFlight=" + running.get() + ")";
+  }
+
+  /**
+   * Creates {@code Thread.ofVirtual().name(THREAD_NAME, 1).factory()}
+   * reflectively, as this library is compiled for Java 8.
+   *
+   * @return The factory, or null if virtual threads are not available
+   */
+  private static @Nullable ThreadFactory virtualThreadFactory() {
+    try {
+      Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Method name = builderType.getMethod("name", String.class, long.class);
+      builder = name.invoke(builder, THREAD_NAME, 1L);
+      return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,411 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.command.ArgumentStack;
+import revxrsal.commands.command.CommandActor;
+import revxrsal.commands.annotation.Range;
+import revxrsal.commands.command.CommandParameter;
+import revxrsal.commands.core.RangeValidatorFactory.RangeValidator;
+import revxrsal.commands.core.reflect.MethodCaller.BoundMethodCaller;
+import revxrsal.commands.process.ParameterResolver;
+import revxrsal.commands.process.ParameterValidator;
+import revxrsal.commands.process.PrimitiveValueResolver;
+import revxrsal.commands.process.ValueResolver;
+import revxrsal.commands.process.ValueResolver.ValueResolverContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static revxrsal.commands.ktx.call.KotlinConstants.*;
+
+/**
+ * An immutable, pre-compiled description of how the arguments of a
+ * {@link CommandExecutable} get resolved.
+ * <p>
+ * This is generated once when the command is registered, so that
+ * {@link BaseCommandDispatcher} does not have to classify parameters,
+ * concatenate flag and switch names, or look up validators on every
+ * invocation.
+ */
+final class InvocationPlan {
+
+    /**
+     * The parameter receives the {@link ArgumentStack} itself
+     */
+    static final int ARGUMENT_STACK = 0;
+
+    /**
+     * The parameter is a {@link revxrsal.commands.annotation.Switch}
+     */
+    static final int SWITCH = 1;
+
+    /**
+     * The parameter is a {@link revxrsal.commands.annotation.Flag}
+     */
+    static final int FLAG = 2;
+
+    /**
+     * The parameter is resolved by a {@link revxrsal.commands.process.ContextResolver}
+     */
+    static final int CONTEXT = 3;
+
+    /**
+     * The parameter is resolved by a {@link revxrsal.commands.process.ValueResolver}
+     */
+    static final int VALUE = 4;
+
+    /**
+     * The parameter is an {@code int} resolved by a {@link PrimitiveValueResolver.OfInt}
+     */
+    static final int INT = 5;
+
+    /**
+     * The parameter is a {@code long} resolved by a {@link PrimitiveValueResolver.OfLong}
+     */
+    static final int LONG = 6;
+
+    /**
+     * The parameter is a {@code double} resolved by a {@link PrimitiveValueResolver.OfDouble}
+     */
+    static final int DOUBLE = 7;
+
+    /**
+     * The parameter is a {@code float} resolved by a {@link PrimitiveValueResolver.OfFloat}
+     */
+    static final int FLOAT = 8;
+
+    /**
+     * The parameter is a {@code boolean} resolved by a {@link PrimitiveValueResolver.OfBoolean}
+     */
+    static final int BOOLEAN = 9;
+
+    /**
+     * Marks a {@link Step#resolvedDefault} that was not resolved yet
+     */
+    static final Object UNRESOLVED = new Object();
+
+    /**
+     * The number of parameters of the method
+     */
+    final int parameterCount;
+
+    /**
+     * Switches and flags, which must be extracted from the arguments
+     * before anything else
+     */
+    final Step[] switchesAndFlags;
+
+    /**
+     * All other parameters, in the order they get resolved
+     */
+    final Step[] arguments;
+
+    /**
+     * The kind of each parameter that is passed as a primitive, by method
+     * index, or null if none are. See {@link BoundMethodCaller#withPrimitiveArguments(boolean[])}.
+     */
+    final int @Nullable [] primitiveKinds;
+
+    /**
+     * The caller that receives the primitive parameters unboxed. Null if
+     * there are none.
+     */
+    final @Nullable BoundMethodCaller primitiveCaller;
+
+    private InvocationPlan(int parameterCount, Step[] switchesAndFlags, Step[] arguments,
+                           int @Nullable [] primitiveKinds, @Nullable BoundMethodCaller primitiveCaller) {
+        this.parameterCount = parameterCount;
+        this.switchesAndFlags = switchesAndFlags;
+        this.arguments = arguments;
+        this.primitiveKinds = primitiveKinds;
+        this.primitiveCaller = primitiveCaller;
+    }
+
+    /**
+     * Compiles the invocation plan of the given command. The command's
+     * parameters must have been already generated.
+     * <p>
+     * Plans must be recompiled when the switch or flag prefix changes.
+     *
+     * @param executable The command to compile for
+     * @return The invocation plan
+     */
+    public static @NotNull InvocationPlan compile(@NotNull CommandExecutable executable) {
+        BaseCommandHandler handler = (BaseCommandHandler) executable.handler;
+        List<Step> switchesAndFlags = new ArrayList<>();
+        List<Step> arguments = new ArrayList<>();
+        boolean kotlin = isKotlinClass(executable.method.getDeclaringClass());
+        int[] primitiveKinds = kotlin ? null : primitiveKinds(executable);
+        BoundMethodCaller primitiveCaller = null;
+        if (primitiveKinds != null) {
+            boolean[] primitive = new boolean[primitiveKinds.length];
+            for (int i = 0; i < primitive.length; i++)
+                primitive[i] = primitiveKinds[i] != 0;
+            primitiveCaller = executable.methodCaller.withPrimitiveArguments(primitive);
+            if (primitiveCaller == null)
+                primitiveKinds = null;
+        }
+        for (CommandParameter parameter : executable.parameters) {
+            if (ArgumentStack.class.isAssignableFrom(parameter.getType()))
+                arguments.add(new Step(parameter, ARGUMENT_STACK, null, kotlin));
+            else if (parameter.isSwitch())
+                switchesAndFlags.add(new Step(parameter, SWITCH, handler.switchPrefix + parameter.getSwitchName(), kotlin));
+            else if (parameter.isFlag())
+                switchesAndFlags.add(new Step(parameter, FLAG, handler.flagPrefix + parameter.getFlagName(), kotlin));
+            else if (primitiveKinds != null && primitiveKinds[parameter.getMethodIndex()] != 0)
+                arguments.add(new Step(parameter, primitiveKinds[parameter.getMethodIndex()], null, kotlin));
+            else if (parameter.getResolver().mutatesArguments())
+                arguments.add(new Step(parameter, VALUE, null, kotlin));
+            else
+                arguments.add(new Step(parameter, CONTEXT, null, kotlin));
+        }
+        return new InvocationPlan(
+                executable.parameters.size(),
+                switchesAndFlags.toArray(new Step[0]),
+                arguments.toArray(new Step[0]),
+                primitiveKinds,
+                primitiveCaller
+        );
+    }
+
+    /**
+     * Returns the kind of every parameter that can be passed as a primitive,
+     * by method index, or null if there are none. These are value parameters
+     * of a primitive type, whose resolver has a primitive method for that
+     * type, and which have no validators that would need the boxed value.
+     * {@link Range} validators can test primitives, so they are allowed.
+     */
+    private static int @Nullable [] primitiveKinds(CommandExecutable executable) {
+        int[] kinds = null;
+        for (CommandParameter parameter : executable.parameters) {
+            if (parameter.isSwitch() || parameter.isFlag() || !validatesPrimitives(parameter))
+                continue;
+            ParameterResolver<?> resolver = parameter.getResolver();
+            if (!(resolver instanceof Resolver))
+                continue;
+            int kind = primitiveKind(parameter.getType(), ((Resolver) resolver).valueResolver());
+            if (kind == 0)
+                continue;
+            if (kinds == null)
+                kinds = new int[executable.parameters.size()];
+            kinds[parameter.getMethodIndex()] = kind;
+        }
+        return kinds;
+    }
+
+    private static boolean validatesPrimitives(CommandParameter parameter) {
+        for (ParameterValidator<Object> validator : parameter.getValidators()) {
+            if (!((Object) validator instanceof RangeValidator))
+                return false;
+        }
+        return true;
+    }
+
+    private static int primitiveKind(Class<?> type, @Nullable ValueResolver<?> resolver) {
+        if (type == int.class && resolver instanceof PrimitiveValueResolver.OfInt)
+            return INT;
+        if (type == long.class && resolver instanceof PrimitiveValueResolver.OfLong)
+            return LONG;
+        if (type == double.class && resolver instanceof PrimitiveValueResolver.OfDouble)
+            return DOUBLE;
+        if (type == float.class && resolver instanceof PrimitiveValueResolver.OfFloat)
+            return FLOAT;
+        if (type == boolean.class && resolver instanceof PrimitiveValueResolver.OfBoolean)
+            return BOOLEAN;
+        return 0;
+    }
+
+    /**
+     * Returns the wrapper type of the given primitive kind
+     *
+     * @param kind The primitive kind
+     * @return The wrapper type
+     */
+    static Class<?> boxedType(int kind) {
+        switch (kind) {
+            case INT:
+                return Integer.class;
+            case LONG:
+                return Long.class;
+            case DOUBLE:
+                return Double.class;
+            case FLOAT:
+                return Float.class;
+            default:
+                return Boolean.class;
+        }
+    }
+
+    /**
+     * Boxes a primitive stored by {@link Step#resolvePrimitive(ValueResolverContext)}
+     *
+     * @param kind  The primitive kind
+     * @param value The stored value
+     * @return The boxed value
+     */
+    static Object box(int kind, long value) {
+        switch (kind) {
+            case INT:
+                return (int) value;
+            case LONG:
+                return value;
+            case DOUBLE:
+                return Double.longBitsToDouble(value);
+            case FLOAT:
+                return Float.intBitsToFloat((int) value);
+            default:
+                return value != 0;
+        }
+    }
+
+    /**
+     * Represents a single parameter in the plan
+     */
+    static final class Step {
+
+        final CommandParameter parameter;
+        final int kind;
+        final int methodIndex;
+
+        /**
+         * The switch or flag literal, including its prefix. Null for other parameters.
+         */
+        final @Nullable String literal;
+        final ParameterResolver<?> resolver;
+
+        /**
+         * The value resolver behind {@link #resolver}, if it is known, so
+         * that failures are reported without being thrown and caught
+         */
+        final @Nullable ValueResolver<?> valueResolver;
+        final ParameterValidator<Object>[] validators;
+
+        /**
+         * The value passed when an optional parameter with no default value is absent
+         */
+        final @Nullable Object absentValue;
+
+        /**
+         * Whether the default value is resolved by a pure resolver, and
+         * can therefore be resolved once and reused
+         */
+        final boolean cachesDefault;
+
+        /**
+         * The resolved default value, or {@link #UNRESOLVED}. This is the
+         * only part of a plan that changes after it is compiled.
+         */
+        volatile Object resolvedDefault = UNRESOLVED;
+
+        @SuppressWarnings("unchecked")
+        private Step(CommandParameter parameter, int kind, @Nullable String literal, boolean kotlin) {
+            this.parameter = parameter;
+            this.kind = kind;
+            this.literal = literal;
+            this.methodIndex = parameter.getMethodIndex();
+            this.resolver = parameter.getResolver();
+            this.valueResolver = resolver instanceof Resolver ? ((Resolver) resolver).valueResolver() : null;
+            this.validators = parameter.getValidators().toArray(new ParameterValidator[0]);
+            this.absentValue = kotlin ? ABSENT_VALUE : defaultPrimitiveValue(parameter.getType());
+            this.cachesDefault = resolver.isPure() && !parameter.getDefaultValue().isEmpty();
+        }
+
+        /**
+         * Resolves the value of a value-based parameter. Invalid input is
+         * passed around as a {@link revxrsal.commands.process.ResolveResult},
+         * and only thrown here.
+         *
+         * @param context The resolving context
+         * @return The resolved value
+         */
+        Object resolveValue(ValueResolverContext context) throws Throwable {
+            if (valueResolver != null)
+                return valueResolver.tryResolve(context).getOrThrow();
+            return resolver.resolve(context);
+        }
+
+        /**
+         * Resolves the value of a primitive parameter, as stored for a
+         * {@link #primitiveCaller}
+         *
+         * @param context The resolving context
+         * @return The resolved value, stored in a long
+         */
+        long resolvePrimitive(ValueResolverContext context) throws Throwable {
+            switch (kind) {
+                case INT:
+                    return ((PrimitiveValueResolver.OfInt) valueResolver).resolveInt(context);
+                case LONG:
+                    return ((PrimitiveValueResolver.OfLong) valueResolver).resolveLong(context);
+                case DOUBLE:
+                    return Double.doubleToRawLongBits(((PrimitiveValueResolver.OfDouble) valueResolver).resolveDouble(context));
+                case FLOAT:
+                    return Float.floatToRawIntBits(((PrimitiveValueResolver.OfFloat) valueResolver).resolveFloat(context));
+                default:
+                    return ((PrimitiveValueResolver.OfBoolean) valueResolver).resolveBoolean(context) ? 1 : 0;
+            }
+        }
+
+        /**
+         * Runs the validators of a primitive parameter, which are all
+         * {@link RangeValidator}s, against the given value
+         *
+         * @param value The value, as stored by {@link #resolvePrimitive(ValueResolverContext)}
+         * @param actor The command actor
+         */
+        void validatePrimitive(long value, CommandActor actor) {
+            for (ParameterValidator<Object> validator : validators) {
+                RangeValidator range = (RangeValidator) (Object) validator;
+                boolean contains;
+                switch (kind) {
+                    case DOUBLE:
+                        contains = range.contains(Double.longBitsToDouble(value));
+                        break;
+                    case FLOAT:
+                        contains = range.contains(Float.intBitsToFloat((int) value));
+                        break;
+                    default:
+                        contains = range.contains(value);
+                }
+                if (!contains)
+                    throw range.outOfRange(actor, parameter, (Number) box(kind, value));
+            }
+        }
+
+        /**
+         * Runs all the validators of this parameter against the given value
+         *
+         * @param value The resolved value
+         * @param actor The command actor
+         */
+        void validate(Object value, CommandActor actor) {
+            for (ParameterValidator<Object> validator : validators) {
+                validator.validate(value, parameter, actor);
+            }
+        }
+    }
+}
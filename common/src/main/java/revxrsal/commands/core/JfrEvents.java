@@ -0,0 +1,199 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Flight Recorder event types. This class must only be referenced from
+ * {@link FlightRecorderEvents}, after checking that {@code jdk.jfr} exists.
+ * <p>
+ * Stack traces are left out, as they would always point at the dispatcher.
+ * Argument resolution events are frequent, so they have to be enabled
+ * explicitly in the recording settings.
+ */
+final class JfrEvents {
+
+  private static final EventType DISPATCH = EventType.getEventType(DispatchEvent.class);
+  private static final EventType ARGUMENT = EventType.getEventType(ArgumentEvent.class);
+  private static final EventType COMPLETION = EventType.getEventType(CompletionEvent.class);
+  private static final EventType BRIGADIER = EventType.getEventType(BrigadierRebuildEvent.class);
+
+  private JfrEvents() {
+  }
+
+  static void init() {
+    // loading this class registers the event types
+  }
+
+  static Object beginDispatch() {
+    if (!DISPATCH.isEnabled()) {
+      return null;
+    }
+    DispatchEvent event = new DispatchEvent();
+    event.begin();
+    return event;
+  }
+
+  static void commitDispatch(Object e, String path, int commandId, String actorType,
+      String outcome) {
+    DispatchEvent event = (DispatchEvent) e;
+    event.end();
+    if (event.shouldCommit()) {
+      event.path = path;
+      event.commandId = commandId;
+      event.actorType = actorType;
+      event.outcome = outcome;
+      event.commit();
+    }
+  }
+
+  static Object beginArgument() {
+    if (!ARGUMENT.isEnabled()) {
+      return null;
+    }
+    ArgumentEvent event = new ArgumentEvent();
+    event.begin();
+    return event;
+  }
+
+  static void commitArgument(Object e, String command, String parameter, String type) {
+    ArgumentEvent event = (ArgumentEvent) e;
+    event.end();
+    if (event.shouldCommit()) {
+      event.command = command;
+      event.parameter = parameter;
+      event.type = type;
+      event.commit();
+    }
+  }
+
+  static Object beginCompletion() {
+    if (!COMPLETION.isEnabled()) {
+      return null;
+    }
+    CompletionEvent event = new CompletionEvent();
+    event.begin();
+    return event;
+  }
+
+  static void commitCompletion(Object e, int inputLength, int results) {
+    CompletionEvent event = (CompletionEvent) e;
+    event.end();
+    if (event.shouldCommit()) {
+      event.inputLength = inputLength;
+      event.results = results;
+      event.commit();
+    }
+  }
+
+  static Object beginBrigadierRebuild() {
+    if (!BRIGADIER.isEnabled()) {
+      return null;
+    }
+    BrigadierRebuildEvent event = new BrigadierRebuildEvent();
+    event.begin();
+    return event;
+  }
+
+  static void commitBrigadierRebuild(Object e, int commands) {
+    BrigadierRebuildEvent event = (BrigadierRebuildEvent) e;
+    event.end();
+    if (event.shouldCommit()) {
+      event.commands = commands;
+      event.commit();
+    }
+  }
+
+  @Name("revxrsal.commands.Dispatch")
+  @Label("Command Dispatch")
+  @Category({"Lamp", "Commands"})
+  @StackTrace(false)
+  @Description("A command was dispatched, from looking it up to handling its response")
+  static final class DispatchEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Command ID")
+    int commandId;
+
+    @Label("Actor Type")
+    String actorType;
+
+    @Label("Outcome")
+    @Description("\"success\", or the type of the exception that ended the dispatch")
+    String outcome;
+  }
+
+  @Name("revxrsal.commands.ArgumentResolution")
+  @Label("Argument Resolution")
+  @Category({"Lamp", "Commands"})
+  @StackTrace(false)
+  @Description("A command parameter was resolved from the actor's input")
+  @Enabled(false)
+  static final class ArgumentEvent extends Event {
+
+    @Label("Command")
+    String command;
+
+    @Label("Parameter")
+    String parameter;
+
+    @Label("Type")
+    String type;
+  }
+
+  @Name("revxrsal.commands.TabCompletion")
+  @Label("Tab Completion")
+  @Category({"Lamp", "Commands"})
+  @StackTrace(false)
+  @Description("Suggestions were generated for an actor's input")
+  static final class CompletionEvent extends Event {
+
+    @Label("Input Length")
+    int inputLength;
+
+    @Label("Results")
+    int results;
+  }
+
+  @Name("revxrsal.commands.BrigadierRebuild")
+  @Label("Brigadier Rebuild")
+  @Category({"Lamp", "Commands"})
+  @StackTrace(false)
+  @Description("The brigadier command tree was rebuilt and registered")
+  static final class BrigadierRebuildEvent extends Event {
+
+    @Label("Commands")
+    int commands;
+  }
+}
@@ -0,0 +1,318 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import java.util.function.LongFunction;
+import org.jetbrains.annotations.NotNull;
+import revxrsal.commands.command.CommandParameter;
+import revxrsal.commands.exception.InvalidNumberException;
+import revxrsal.commands.process.PrimitiveValueResolver;
+import revxrsal.commands.process.PureValueResolver;
+import revxrsal.commands.process.ResolveResult;
+import revxrsal.commands.process.ValueResolver.ValueResolverContext;
+
+/**
+ * Resolvers for the built-in number types. These check the input before parsing it, so invalid
+ * numbers are rejected without a {@link NumberFormatException} being thrown.
+ * <p>
+ * All of them accept whole numbers in base 16 when prefixed with {@code 0x}.
+ */
+final class NumberResolvers {
+
+  /**
+   * Returned by {@link #parseNegated(String, long, long)} for invalid input. Valid results are
+   * never positive.
+   */
+  static final long INVALID = 1;
+
+  static final PureValueResolver<Byte> BYTE = integral(Byte.MIN_VALUE, Byte.MAX_VALUE,
+      value -> (byte) value);
+  static final PureValueResolver<Short> SHORT = integral(Short.MIN_VALUE, Short.MAX_VALUE,
+      value -> (short) value);
+  static final IntResolver INT = new IntResolver();
+  static final LongResolver LONG = new LongResolver();
+  static final DoubleResolver DOUBLE = new DoubleResolver();
+  static final FloatResolver FLOAT = new FloatResolver();
+
+  private NumberResolvers() {
+  }
+
+  private static <T> PureValueResolver<T> integral(long min, long max, LongFunction<T> convert) {
+    return context -> {
+      String input = context.pop();
+      long negated = parseNegated(input, min, max);
+      if (negated == INVALID) {
+        return invalid(context.parameter(), input);
+      }
+      return ResolveResult.success(convert.apply(integralValue(input, negated)));
+    };
+  }
+
+  private static <T> ResolveResult<T> invalid(CommandParameter parameter, String input) {
+    return ResolveResult.failure(() -> new InvalidNumberException(parameter, input));
+  }
+
+  /**
+   * Parses a whole number in the given range, or throws an {@link InvalidNumberException}.
+   *
+   * @see #parseNegated(String, long, long)
+   */
+  static long parseIntegral(@NotNull String input, long min, long max,
+      @NotNull CommandParameter parameter) {
+    long negated = parseNegated(input, min, max);
+    if (negated == INVALID) {
+      throw new InvalidNumberException(parameter, input);
+    }
+    return integralValue(input, negated);
+  }
+
+  /**
+   * Parses a decimal number, or a whole number in base 16 if prefixed with {@code 0x}, or throws
+   * an {@link InvalidNumberException}.
+   */
+  static double parseDecimal(@NotNull String input, @NotNull CommandParameter parameter) {
+    if (isDecimal(input)) {
+      return Double.parseDouble(input);
+    }
+    return parseIntegral(input, Long.MIN_VALUE, Long.MAX_VALUE, parameter);
+  }
+
+  /**
+   * Parses a {@code float}, like {@link #parseDecimal(String, CommandParameter)}.
+   */
+  static float parseFloat(@NotNull String input, @NotNull CommandParameter parameter) {
+    if (isDecimal(input)) {
+      return Float.parseFloat(input);
+    }
+    return parseIntegral(input, Long.MIN_VALUE, Long.MAX_VALUE, parameter);
+  }
+
+  /**
+   * Parses a whole number in base 10, or base 16 if prefixed with {@code 0x}, without boxing it.
+   * <p>
+   * Digits are accumulated negatively, as the negative range is the larger one. This returns the
+   * number if it is negative, or its negation otherwise, which
+   * {@link #integralValue(String, long)} turns back into the number.
+   *
+   * @return The negated number, or {@link #INVALID} if the input is not a number in the given
+   * range
+   */
+  static long parseNegated(@NotNull String input, long min, long max) {
+    int length = input.length();
+    int i = 0;
+    boolean negative = false;
+    if (i < length && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+      negative = input.charAt(i) == '-';
+      i++;
+    }
+    int radix = 10;
+    if (input.startsWith("0x", i) || input.startsWith("0X", i)) {
+      radix = 16;
+      i += 2;
+    }
+    if (i == length) {
+      return INVALID;
+    }
+    long limit = negative ? min : -max;
+    long multiplyMin = limit / radix;
+    long result = 0;
+    for (; i < length; i++) {
+      int digit = Character.digit(input.charAt(i), radix);
+      if (digit < 0 || result < multiplyMin) {
+        return INVALID;
+      }
+      result *= radix;
+      if (result < limit + digit) {
+        return INVALID;
+      }
+      result -= digit;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number from the result of {@link #parseNegated(String, long, long)}
+   *
+   * @param input   The parsed input
+   * @param negated The parse result
+   * @return The number
+   */
+  static long integralValue(@NotNull String input, long negated) {
+    return input.startsWith("-") ? negated : -negated;
+  }
+
+  /**
+   * Tests whether the input is a decimal number that {@link Double#parseDouble(String)} accepts,
+   * excluding hexadecimal floating-point literals.
+   */
+  static boolean isDecimal(@NotNull String input) {
+    int length = input.length();
+    int i = 0;
+    if (i < length && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+      i++;
+    }
+    if (input.startsWith("NaN", i) || input.startsWith("Infinity", i)) {
+      return input.length() - i == (input.charAt(i) == 'N' ? 3 : 8);
+    }
+    int digits = 0;
+    while (i < length && isDigit(input.charAt(i))) {
+      i++;
+      digits++;
+    }
+    if (i < length && input.charAt(i) == '.') {
+      i++;
+      while (i < length && isDigit(input.charAt(i))) {
+        i++;
+        digits++;
+      }
+    }
+    if (digits == 0) {
+      return false;
+    }
+    if (i < length && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+      i++;
+      if (i < length && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+        i++;
+      }
+      int exponent = i;
+      while (i < length && isDigit(input.charAt(i))) {
+        i++;
+      }
+      if (i == exponent) {
+        return false;
+      }
+    }
+    if (i < length && "fFdD".indexOf(input.charAt(i)) != -1) {
+      i++;
+    }
+    return i == length;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static final class IntResolver implements PureValueResolver<Integer>,
+      PrimitiveValueResolver.OfInt {
+
+    @Override
+    public int resolveInt(@NotNull ValueResolverContext context) {
+      return (int) parseIntegral(context.pop(), Integer.MIN_VALUE, Integer.MAX_VALUE,
+          context.parameter());
+    }
+
+    @Override
+    public Integer resolve(@NotNull ValueResolverContext context) {
+      return resolveInt(context);
+    }
+
+    @Override
+    public @NotNull ResolveResult<Integer> tryResolve(@NotNull ValueResolverContext context) {
+      String input = context.pop();
+      long negated = parseNegated(input, Integer.MIN_VALUE, Integer.MAX_VALUE);
+      if (negated == INVALID) {
+        return invalid(context.parameter(), input);
+      }
+      return ResolveResult.success((int) integralValue(input, negated));
+    }
+  }
+
+  private static final class LongResolver implements PureValueResolver<Long>,
+      PrimitiveValueResolver.OfLong {
+
+    @Override
+    public long resolveLong(@NotNull ValueResolverContext context) {
+      return parseIntegral(context.pop(), Long.MIN_VALUE, Long.MAX_VALUE, context.parameter());
+    }
+
+    @Override
+    public Long resolve(@NotNull ValueResolverContext context) {
+      return resolveLong(context);
+    }
+
+    @Override
+    public @NotNull ResolveResult<Long> tryResolve(@NotNull ValueResolverContext context) {
+      String input = context.pop();
+      long negated = parseNegated(input, Long.MIN_VALUE, Long.MAX_VALUE);
+      if (negated == INVALID) {
+        return invalid(context.parameter(), input);
+      }
+      return ResolveResult.success(integralValue(input, negated));
+    }
+  }
+
+  private static final class DoubleResolver implements PureValueResolver<Double>,
+      PrimitiveValueResolver.OfDouble {
+
+    @Override
+    public double resolveDouble(@NotNull ValueResolverContext context) {
+      return parseDecimal(context.pop(), context.parameter());
+    }
+
+    @Override
+    public Double resolve(@NotNull ValueResolverContext context) {
+      return resolveDouble(context);
+    }
+
+    @Override
+    public @NotNull ResolveResult<Double> tryResolve(@NotNull ValueResolverContext context) {
+      String input = context.pop();
+      if (isDecimal(input)) {
+        return ResolveResult.success(Double.parseDouble(input));
+      }
+      long negated = parseNegated(input, Long.MIN_VALUE, Long.MAX_VALUE);
+      if (negated == INVALID) {
+        return invalid(context.parameter(), input);
+      }
+      return ResolveResult.success((double) integralValue(input, negated));
+    }
+  }
+
+  private static final class FloatResolver implements PureValueResolver<Float>,
+      PrimitiveValueResolver.OfFloat {
+
+    @Override
+    public float resolveFloat(@NotNull ValueResolverContext context) {
+      return parseFloat(context.pop(), context.parameter());
+    }
+
+    @Override
+    public Float resolve(@NotNull ValueResolverContext context) {
+      return resolveFloat(context);
+    }
+
+    @Override
+    public @NotNull ResolveResult<Float> tryResolve(@NotNull ValueResolverContext context) {
+      String input = context.pop();
+      if (isDecimal(input)) {
+        return ResolveResult.success(Float.parseFloat(input));
+      }
+      long negated = parseNegated(input, Long.MIN_VALUE, Long.MAX_VALUE);
+      if (negated == INVALID) {
+        return invalid(context.parameter(), input);
+      }
+      return ResolveResult.success((float) integralValue(input, negated));
+    }
+  }
+}
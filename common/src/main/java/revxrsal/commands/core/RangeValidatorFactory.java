@@ -0,0 +1,152 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.annotation.Range;
+import revxrsal.commands.command.CommandActor;
+import revxrsal.commands.command.CommandParameter;
+import revxrsal.commands.exception.NumberNotInRangeException;
+import revxrsal.commands.process.ParameterValidator;
+import revxrsal.commands.process.ParameterValidatorFactory;
+import revxrsal.commands.util.Primitives;
+
+/**
+ * Validates numerical parameters annotated with {@link Range}. The bounds are read once, and
+ * integral types are compared without going through {@code double}.
+ */
+enum RangeValidatorFactory implements ParameterValidatorFactory {
+
+  INSTANCE;
+
+  @Override
+  public @Nullable ParameterValidator<?> create(@NotNull CommandParameter parameter) {
+    Class<?> type = Primitives.wrap(parameter.getType());
+    if (!Number.class.isAssignableFrom(type)) {
+      return null;
+    }
+    Range range = parameter.getAnnotation(Range.class);
+    if (range == null) {
+      return null;
+    }
+    double min = range.min();
+    double max = range.max();
+    if (type == Integer.class || type == Short.class || type == Byte.class
+        || type == Long.class) {
+      return new IntegralRange(min, max);
+    }
+    return new DecimalRange(min, max);
+  }
+
+  /**
+   * A {@link Range} validator. Besides boxed values, it can test the primitive values that
+   * {@link InvocationPlan} passes unboxed.
+   */
+  abstract static class RangeValidator implements ParameterValidator<Number> {
+
+    final double min;
+    final double max;
+
+    RangeValidator(double min, double max) {
+      this.min = min;
+      this.max = max;
+    }
+
+    /**
+     * Tests whether the value of an integral parameter is in the range
+     */
+    abstract boolean contains(long value);
+
+    /**
+     * Tests whether the value of a decimal parameter is in the range
+     */
+    abstract boolean contains(double value);
+
+    /**
+     * Creates the exception thrown when a value is not in the range
+     */
+    NumberNotInRangeException outOfRange(CommandActor actor, CommandParameter parameter,
+        Number value) {
+      return new NumberNotInRangeException(actor, parameter, value, min, max);
+    }
+  }
+
+  private static final class IntegralRange extends RangeValidator {
+
+    private final long lower;
+    private final long upper;
+
+    IntegralRange(double min, double max) {
+      super(min, max);
+      // integers are below a bound exactly when they are below its ceiling. out-of-range
+      // casts saturate, which keeps the comparison correct.
+      this.lower = Double.isNaN(min) ? Long.MIN_VALUE : (long) Math.ceil(min);
+      this.upper = Double.isNaN(max) ? Long.MAX_VALUE : (long) Math.floor(max);
+    }
+
+    @Override
+    boolean contains(long value) {
+      return value >= lower && value <= upper;
+    }
+
+    @Override
+    boolean contains(double value) {
+      return !(value < min || value > max);
+    }
+
+    @Override
+    public void validate(Number value, @NotNull CommandParameter parameter,
+        @NotNull CommandActor actor) {
+      if (value != null && !contains(value.longValue())) {
+        throw outOfRange(actor, parameter, value);
+      }
+    }
+  }
+
+  private static final class DecimalRange extends RangeValidator {
+
+    DecimalRange(double min, double max) {
+      super(min, max);
+    }
+
+    @Override
+    boolean contains(long value) {
+      return contains((double) value);
+    }
+
+    @Override
+    boolean contains(double value) {
+      return !(value < min || value > max);
+    }
+
+    @Override
+    public void validate(Number value, @NotNull CommandParameter parameter,
+        @NotNull CommandActor actor) {
+      if (value != null && !contains(value.doubleValue())) {
+        throw outOfRange(actor, parameter, value);
+      }
+    }
+  }
+}
@@ -25,9 +25,12 @@ package revxrsal.commands.core;
 
 import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
+import revxrsal.commands.annotation.Cached;
+import revxrsal.commands.process.CachedValueResolver;
 import revxrsal.commands.process.ContextResolver;
 import revxrsal.commands.process.ContextResolver.ContextResolverContext;
 import revxrsal.commands.process.ParameterResolver;
+import revxrsal.commands.process.ResolveResult;
 import revxrsal.commands.process.ValueResolver;
 import revxrsal.commands.process.ValueResolver.ValueResolverContext;
 
@@ -49,6 +52,11 @@ final class Resolver implements ParameterResolver<Object> {
     return mutates;
   }
 
+  @Override
+  public boolean isPure() {
+    return valueResolver != null && valueResolver.isPure();
+  }
+
   @SneakyThrows
   public Object resolve(@NotNull ParameterResolverContext context) {
     if (valueResolver != null) {
@@ -57,6 +65,33 @@ final class Resolver implements ParameterResolver<Object> {
     return contextResolver.resolve((ContextResolverContext) context);
   }
 
+  /**
+   * Returns the wrapped value resolver, or null if this wraps a context resolver.
+   */
+  public ValueResolver<?> valueResolver() {
+    return valueResolver;
+  }
+
+  /**
+   * Resolves the value of a value-based parameter, returning the reason for failure instead of
+   * throwing it.
+   */
+  public ResolveResult<?> tryResolve(@NotNull ValueResolverContext context) {
+    return valueResolver.tryResolve(context);
+  }
+
+  /**
+   * Returns a copy of this resolver that caches its values as specified by the given
+   * annotation. Context resolvers are returned as they are.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public Resolver cached(@NotNull Cached cached) {
+    if (valueResolver == null) {
+      return this;
+    }
+    return new Resolver(null, CachedValueResolver.of((ValueResolver) valueResolver, cached));
+  }
+
   public static Resolver wrap(Object resolver) {
     if (resolver instanceof ValueResolver) {
       return new Resolver(null, (ValueResolver<?>) resolver);
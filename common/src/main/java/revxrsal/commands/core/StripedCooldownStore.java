@@ -0,0 +1,311 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core;
+
+import static revxrsal.commands.util.Preconditions.notNull;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import revxrsal.commands.process.CooldownStore;
+
+/**
+ * The default {@link CooldownStore}.
+ * <p>
+ * Entries are spread over lock-striped open-addressing tables, keyed by the
+ * actor's UUID bits and the command ID as primitives, so a lookup never
+ * boxes or allocates. A cooldown is expired lazily when it is looked up,
+ * and expired entries that are never looked up again are evicted in bulk by
+ * a hashed timer wheel that each stripe advances as it is accessed.
+ *
+ * @see CooldownStore#striped()
+ */
+@ApiStatus.Internal
+public final class StripedCooldownStore implements CooldownStore {
+
+  private static final int STRIPES = 16;
+  private static final int MIN_CAPACITY = 16;
+  private static final long TICK_MILLIS = 1000;
+  private static final int WHEEL_SIZE = 64;
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+  private final LongAdder evictions = new LongAdder();
+
+  /* Guarded by this */
+  private long sampleTime = System.currentTimeMillis();
+  private long sampleEvictions;
+  private double evictionRate;
+
+  public StripedCooldownStore() {
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  @Override
+  public long acquire(@NotNull UUID actor, int commandId, long durationMillis) {
+    notNull(actor, "actor");
+    long msb = actor.getMostSignificantBits();
+    long lsb = actor.getLeastSignificantBits();
+    Stripe stripe = stripes[(int) (mix(msb ^ lsb) >>> 32) & (STRIPES - 1)];
+    long now = System.currentTimeMillis();
+    synchronized (stripe) {
+      stripe.advance(now);
+      return stripe.acquire(msb, lsb, commandId, now, durationMillis);
+    }
+  }
+
+  @Override
+  public @NotNull Stats stats() {
+    long live = 0;
+    for (Stripe stripe : stripes) {
+      live += stripe.size;
+    }
+    long total = evictions.sum();
+    double rate;
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      if (now - sampleTime >= 1000) {
+        evictionRate = (total - sampleEvictions) * 1000D / (now - sampleTime);
+        sampleTime = now;
+        sampleEvictions = total;
+      }
+      rate = evictionRate;
+    }
+    return new Snapshot(live, total, rate);
+  }
+
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private static int hash(long msb, long lsb, int command) {
+    return (int) mix(msb ^ Long.rotateLeft(lsb, 32) ^ (command * 0x9E3779B97F4A7C15L));
+  }
+
+  private static int slotOf(long deadline) {
+    // the first tick that starts after the deadline
+    return (int) ((deadline / TICK_MILLIS + 1) & (WHEEL_SIZE - 1));
+  }
+
+  /**
+   * A linear-probing table of (msb, lsb, command) -> deadline, plus the
+   * timer wheel of its entries. A deadline of 0 marks an empty slot.
+   */
+  private final class Stripe {
+
+    private long[] msbs = new long[MIN_CAPACITY];
+    private long[] lsbs = new long[MIN_CAPACITY];
+    private int[] commands = new int[MIN_CAPACITY];
+    private long[] deadlines = new long[MIN_CAPACITY];
+    private volatile int size;
+
+    /* Each bucket holds (msb, lsb, command) triples */
+    private final long[][] wheel = new long[WHEEL_SIZE][];
+    private final int[] wheelSizes = new int[WHEEL_SIZE];
+    private long tick = -1;
+
+    long acquire(long msb, long lsb, int command, long now, long duration) {
+      long deadline = now + duration;
+      int index = indexOf(msb, lsb, command);
+      if (index >= 0) {
+        long left = deadlines[index] - now;
+        if (left > 0) {
+          return left;
+        }
+        evictions.increment();
+        deadlines[index] = deadline;
+      } else {
+        if ((size + 1) * 2 > deadlines.length) {
+          resize(deadlines.length * 2);
+        }
+        insert(msb, lsb, command, deadline);
+      }
+      schedule(msb, lsb, command, deadline);
+      return 0;
+    }
+
+    void advance(long now) {
+      long current = now / TICK_MILLIS;
+      if (tick < 0) {
+        tick = current;
+        return;
+      }
+      if (current <= tick) {
+        return;
+      }
+      long steps = Math.min(current - tick, WHEEL_SIZE);
+      for (long t = current - steps + 1; t <= current; t++) {
+        drain((int) (t & (WHEEL_SIZE - 1)), now);
+      }
+      tick = current;
+      if (size * 8 < deadlines.length && deadlines.length > MIN_CAPACITY) {
+        resize(deadlines.length / 2);
+      }
+    }
+
+    private void drain(int slot, long now) {
+      int length = wheelSizes[slot];
+      if (length == 0) {
+        return;
+      }
+      long[] bucket = wheel[slot];
+      wheel[slot] = null;
+      wheelSizes[slot] = 0;
+      int evicted = 0;
+      for (int i = 0; i < length; i += 3) {
+        long msb = bucket[i], lsb = bucket[i + 1];
+        int command = (int) bucket[i + 2];
+        int index = indexOf(msb, lsb, command);
+        if (index < 0) {
+          continue; // already expired on lookup
+        }
+        long deadline = deadlines[index];
+        if (deadline <= now) {
+          remove(index);
+          evicted++;
+        } else if (slotOf(deadline) == slot) {
+          schedule(msb, lsb, command, deadline); // due in a later rotation
+        }
+        // otherwise, the entry was renewed and is scheduled in another slot
+      }
+      evictions.add(evicted);
+    }
+
+    private void schedule(long msb, long lsb, int command, long deadline) {
+      int slot = slotOf(deadline);
+      long[] bucket = wheel[slot];
+      int length = wheelSizes[slot];
+      if (bucket == null) {
+        bucket = wheel[slot] = new long[12];
+      } else if (length == bucket.length) {
+        long[] grown = new long[length * 2];
+        System.arraycopy(bucket, 0, grown, 0, length);
+        bucket = wheel[slot] = grown;
+      }
+      bucket[length] = msb;
+      bucket[length + 1] = lsb;
+      bucket[length + 2] = command;
+      wheelSizes[slot] = length + 3;
+    }
+
+    private int indexOf(long msb, long lsb, int command) {
+      int mask = deadlines.length - 1;
+      int i = hash(msb, lsb, command) & mask;
+      while (deadlines[i] != 0) {
+        if (msbs[i] == msb && lsbs[i] == lsb && commands[i] == command) {
+          return i;
+        }
+        i = (i + 1) & mask;
+      }
+      return -1;
+    }
+
+    private void insert(long msb, long lsb, int command, long deadline) {
+      int mask = deadlines.length - 1;
+      int i = hash(msb, lsb, command) & mask;
+      while (deadlines[i] != 0) {
+        i = (i + 1) & mask;
+      }
+      msbs[i] = msb;
+      lsbs[i] = lsb;
+      commands[i] = command;
+      deadlines[i] = deadline;
+      size++;
+    }
+
+    private void remove(int index) {
+      int mask = deadlines.length - 1;
+      int hole = index;
+      // shift back any entry whose probe sequence passes through the hole
+      for (int i = (hole + 1) & mask; deadlines[i] != 0; i = (i + 1) & mask) {
+        int home = hash(msbs[i], lsbs[i], commands[i]) & mask;
+        if (((i - home) & mask) >= ((i - hole) & mask)) {
+          msbs[hole] = msbs[i];
+          lsbs[hole] = lsbs[i];
+          commands[hole] = commands[i];
+          deadlines[hole] = deadlines[i];
+          hole = i;
+        }
+      }
+      deadlines[hole] = 0;
+      size--;
+    }
+
+    private void resize(int capacity) {
+      long[] oldMsbs = msbs, oldLsbs = lsbs, oldDeadlines = deadlines;
+      int[] oldCommands = commands;
+      msbs = new long[capacity];
+      lsbs = new long[capacity];
+      commands = new int[capacity];
+      deadlines = new long[capacity];
+      size = 0;
+      for (int i = 0; i < oldDeadlines.length; i++) {
+        if (oldDeadlines[i] != 0) {
+          insert(oldMsbs[i], oldLsbs[i], oldCommands[i], oldDeadlines[i]);
+        }
+      }
+    }
+  }
+
+  private static final class Snapshot implements Stats {
+
+    private final long liveEntries;
+    private final long evictions;
+    private final double evictionsPerSecond;
+
+    Snapshot(long liveEntries, long evictions, double evictionsPerSecond) {
+      this.liveEntries = liveEntries;
+      this.evictions = evictions;
+      this.evictionsPerSecond = evictionsPerSecond;
+    }
+
+    @Override
+    public long liveEntries() {
+      return liveEntries;
+    }
+
+    @Override
+    public long evictions() {
+      return evictions;
+    }
+
+    @Override
+    public double evictionsPerSecond() {
+      return evictionsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+      return "CooldownStore.Stats(liveEntries=" + liveEntries + ", evictions=" + evictions
+          + ", evictionsPerSecond=" + evictionsPerSecond + ")";
+    }
+  }
+}
@@ -28,7 +28,7 @@ import org.jetbrains.annotations.NotNull;
 import java.lang.reflect.Method;
 
 import static revxrsal.commands.core.reflect.MethodCallerFactory.kotlinFunctions;
-import static revxrsal.commands.core.reflect.MethodCallerFactory.methodHandles;
+import static revxrsal.commands.core.reflect.MethodCallerFactory.spreadMethodHandles;
 import static revxrsal.commands.ktx.call.KotlinConstants.isKotlinClass;
 
 final class DefaultMethodCallerFactory implements MethodCallerFactory {
@@ -39,6 +39,6 @@ final class DefaultMethodCallerFactory implements MethodCallerFactory {
         if (isKotlinClass(method.getDeclaringClass())) {
             return kotlinFunctions().createFor(method);
         }
-        return methodHandles().createFor(method);
+        return spreadMethodHandles().createFor(method);
     }
 }
@@ -0,0 +1,394 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core.reflect;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Fixed-arity functional interfaces implemented by classes that are generated
+ * by {@link LambdaMethodCallerFactory}. Each interface takes the receiver (for
+ * non-static methods) followed by the method arguments.
+ * <p>
+ * These must be public, as the generated classes are defined in the package
+ * of the command class.
+ */
+@ApiStatus.Internal
+public final class LambdaInvokers {
+
+  /**
+   * The maximum number of arguments (including the receiver) that
+   * can be invoked through these interfaces.
+   */
+  static final int MAX_ARITY = 8;
+
+  private LambdaInvokers() {
+  }
+
+  @FunctionalInterface
+  public interface Invoker0 {
+
+    Object invoke();
+  }
+
+  @FunctionalInterface
+  public interface VoidInvoker0 {
+
+    void invoke();
+  }
+
+  @FunctionalInterface
+  public interface Invoker1 {
+
+    Object invoke(Object a0);
+  }
+
+  @FunctionalInterface
+  public interface VoidInvoker1 {
+
+    void invoke(Object a0);
+  }
+
+  @FunctionalInterface
+  public interface Invoker2 {
+
+    Object invoke(Object a0, Object a1);
+  }
+
+  @FunctionalInterface
+  public interface VoidInvoker2 {
+
+    void invoke(Object a0, Object a1);
+  }
+
+  @FunctionalInterface
+  public interface Invoker3 {
+
+    Object invoke(Object a0, Object a1, Object a2);
+  }
+
+  @FunctionalInterface
+  public interface VoidInvoker3 {
+
+    void invoke(Object a0, Object a1, Object a2);
+  }
+
+  @FunctionalInterface
+  public interface Invoker4 {
+
+    Object invoke(Object a0, Object a1, Object a2, Object a3);
+  }
+
+  @FunctionalInterface
+  public interface VoidInvoker4 {
+
+    void invoke(Object a0, Object a1, Object a2, Object a3);
+  }
+
+  @FunctionalInterface
+  public interface Invoker5 {
+
+    Object invoke(Object a0, Object a1, Object a2, Object a3, Object a4);
+  }
+
+  @FunctionalInterface
+  public interface VoidInvoker5 {
+
+    void invoke(Object a0, Object a1, Object a2, Object a3, Object a4);
+  }
+
+  @FunctionalInterface
+  public interface Invoker6 {
+
+    Object invoke(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5);
+  }
+
+  @FunctionalInterface
+  public interface VoidInvoker6 {
+
+    void invoke(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5);
+  }
+
+  @FunctionalInterface
+  public interface Invoker7 {
+
+    Object invoke(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6);
+  }
+
+  @FunctionalInterface
+  public interface VoidInvoker7 {
+
+    void invoke(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6);
+  }
+
+  @FunctionalInterface
+  public interface Invoker8 {
+
+    Object invoke(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6, Object a7);
+  }
+
+  @FunctionalInterface
+  public interface VoidInvoker8 {
+
+    void invoke(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6, Object a7);
+  }
+
+  /**
+   * Returns the interface to implement for the given arity
+   *
+   * @param arity  The number of parameters, including the receiver
+   * @param isVoid Whether the method returns void
+   * @return The interface
+   */
+  static Class<?> interfaceFor(int arity, boolean isVoid) {
+    switch (arity) {
+      case 0:
+        return isVoid ? VoidInvoker0.class : Invoker0.class;
+      case 1:
+        return isVoid ? VoidInvoker1.class : Invoker1.class;
+      case 2:
+        return isVoid ? VoidInvoker2.class : Invoker2.class;
+      case 3:
+        return isVoid ? VoidInvoker3.class : Invoker3.class;
+      case 4:
+        return isVoid ? VoidInvoker4.class : Invoker4.class;
+      case 5:
+        return isVoid ? VoidInvoker5.class : Invoker5.class;
+      case 6:
+        return isVoid ? VoidInvoker6.class : Invoker6.class;
+      case 7:
+        return isVoid ? VoidInvoker7.class : Invoker7.class;
+      case 8:
+        return isVoid ? VoidInvoker8.class : Invoker8.class;
+      default:
+        throw new IllegalArgumentException("Unsupported arity: " + arity);
+    }
+  }
+
+  /**
+   * Wraps the generated invoker into a {@link MethodCaller} that unpacks the
+   * receiver and the arguments.
+   *
+   * @param invoker  The generated invoker
+   * @param arity    The number of parameters, including the receiver
+   * @param isStatic Whether the method is static, in which case the receiver is not passed
+   * @return The method caller
+   */
+  static MethodCaller adapt(Object invoker, int arity, boolean isStatic) {
+    if (isStatic) {
+      switch (arity) {
+        case 0: {
+          if (invoker instanceof VoidInvoker0) {
+            VoidInvoker0 i = (VoidInvoker0) invoker;
+            return (instance, a) -> {
+              i.invoke();
+              return null;
+            };
+          }
+          Invoker0 i = (Invoker0) invoker;
+          return (instance, a) -> i.invoke();
+        }
+        case 1: {
+          if (invoker instanceof VoidInvoker1) {
+            VoidInvoker1 i = (VoidInvoker1) invoker;
+            return (instance, a) -> {
+              i.invoke(a[0]);
+              return null;
+            };
+          }
+          Invoker1 i = (Invoker1) invoker;
+          return (instance, a) -> i.invoke(a[0]);
+        }
+        case 2: {
+          if (invoker instanceof VoidInvoker2) {
+            VoidInvoker2 i = (VoidInvoker2) invoker;
+            return (instance, a) -> {
+              i.invoke(a[0], a[1]);
+              return null;
+            };
+          }
+          Invoker2 i = (Invoker2) invoker;
+          return (instance, a) -> i.invoke(a[0], a[1]);
+        }
+        case 3: {
+          if (invoker instanceof VoidInvoker3) {
+            VoidInvoker3 i = (VoidInvoker3) invoker;
+            return (instance, a) -> {
+              i.invoke(a[0], a[1], a[2]);
+              return null;
+            };
+          }
+          Invoker3 i = (Invoker3) invoker;
+          return (instance, a) -> i.invoke(a[0], a[1], a[2]);
+        }
+        case 4: {
+          if (invoker instanceof VoidInvoker4) {
+            VoidInvoker4 i = (VoidInvoker4) invoker;
+            return (instance, a) -> {
+              i.invoke(a[0], a[1], a[2], a[3]);
+              return null;
+            };
+          }
+          Invoker4 i = (Invoker4) invoker;
+          return (instance, a) -> i.invoke(a[0], a[1], a[2], a[3]);
+        }
+        case 5: {
+          if (invoker instanceof VoidInvoker5) {
+            VoidInvoker5 i = (VoidInvoker5) invoker;
+            return (instance, a) -> {
+              i.invoke(a[0], a[1], a[2], a[3], a[4]);
+              return null;
+            };
+          }
+          Invoker5 i = (Invoker5) invoker;
+          return (instance, a) -> i.invoke(a[0], a[1], a[2], a[3], a[4]);
+        }
+        case 6: {
+          if (invoker instanceof VoidInvoker6) {
+            VoidInvoker6 i = (VoidInvoker6) invoker;
+            return (instance, a) -> {
+              i.invoke(a[0], a[1], a[2], a[3], a[4], a[5]);
+              return null;
+            };
+          }
+          Invoker6 i = (Invoker6) invoker;
+          return (instance, a) -> i.invoke(a[0], a[1], a[2], a[3], a[4], a[5]);
+        }
+        case 7: {
+          if (invoker instanceof VoidInvoker7) {
+            VoidInvoker7 i = (VoidInvoker7) invoker;
+            return (instance, a) -> {
+              i.invoke(a[0], a[1], a[2], a[3], a[4], a[5], a[6]);
+              return null;
+            };
+          }
+          Invoker7 i = (Invoker7) invoker;
+          return (instance, a) -> i.invoke(a[0], a[1], a[2], a[3], a[4], a[5], a[6]);
+        }
+        case 8: {
+          if (invoker instanceof VoidInvoker8) {
+            VoidInvoker8 i = (VoidInvoker8) invoker;
+            return (instance, a) -> {
+              i.invoke(a[0], a[1], a[2], a[3], a[4], a[5], a[6], a[7]);
+              return null;
+            };
+          }
+          Invoker8 i = (Invoker8) invoker;
+          return (instance, a) -> i.invoke(a[0], a[1], a[2], a[3], a[4], a[5], a[6], a[7]);
+        }
+      }
+    } else {
+      switch (arity) {
+        case 1: {
+          if (invoker instanceof VoidInvoker1) {
+            VoidInvoker1 i = (VoidInvoker1) invoker;
+            return (instance, a) -> {
+              i.invoke(instance);
+              return null;
+            };
+          }
+          Invoker1 i = (Invoker1) invoker;
+          return (instance, a) -> i.invoke(instance);
+        }
+        case 2: {
+          if (invoker instanceof VoidInvoker2) {
+            VoidInvoker2 i = (VoidInvoker2) invoker;
+            return (instance, a) -> {
+              i.invoke(instance, a[0]);
+              return null;
+            };
+          }
+          Invoker2 i = (Invoker2) invoker;
+          return (instance, a) -> i.invoke(instance, a[0]);
+        }
+        case 3: {
+          if (invoker instanceof VoidInvoker3) {
+            VoidInvoker3 i = (VoidInvoker3) invoker;
+            return (instance, a) -> {
+              i.invoke(instance, a[0], a[1]);
+              return null;
+            };
+          }
+          Invoker3 i = (Invoker3) invoker;
+          return (instance, a) -> i.invoke(instance, a[0], a[1]);
+        }
+        case 4: {
+          if (invoker instanceof VoidInvoker4) {
+            VoidInvoker4 i = (VoidInvoker4) invoker;
+            return (instance, a) -> {
+              i.invoke(instance, a[0], a[1], a[2]);
+              return null;
+            };
+          }
+          Invoker4 i = (Invoker4) invoker;
+          return (instance, a) -> i.invoke(instance, a[0], a[1], a[2]);
+        }
+        case 5: {
+          if (invoker instanceof VoidInvoker5) {
+            VoidInvoker5 i = (VoidInvoker5) invoker;
+            return (instance, a) -> {
+              i.invoke(instance, a[0], a[1], a[2], a[3]);
+              return null;
+            };
+          }
+          Invoker5 i = (Invoker5) invoker;
+          return (instance, a) -> i.invoke(instance, a[0], a[1], a[2], a[3]);
+        }
+        case 6: {
+          if (invoker instanceof VoidInvoker6) {
+            VoidInvoker6 i = (VoidInvoker6) invoker;
+            return (instance, a) -> {
+              i.invoke(instance, a[0], a[1], a[2], a[3], a[4]);
+              return null;
+            };
+          }
+          Invoker6 i = (Invoker6) invoker;
+          return (instance, a) -> i.invoke(instance, a[0], a[1], a[2], a[3], a[4]);
+        }
+        case 7: {
+          if (invoker instanceof VoidInvoker7) {
+            VoidInvoker7 i = (VoidInvoker7) invoker;
+            return (instance, a) -> {
+              i.invoke(instance, a[0], a[1], a[2], a[3], a[4], a[5]);
+              return null;
+            };
+          }
+          Invoker7 i = (Invoker7) invoker;
+          return (instance, a) -> i.invoke(instance, a[0], a[1], a[2], a[3], a[4], a[5]);
+        }
+        case 8: {
+          if (invoker instanceof VoidInvoker8) {
+            VoidInvoker8 i = (VoidInvoker8) invoker;
+            return (instance, a) -> {
+              i.invoke(instance, a[0], a[1], a[2], a[3], a[4], a[5], a[6]);
+              return null;
+            };
+          }
+          Invoker8 i = (Invoker8) invoker;
+          return (instance, a) -> i.invoke(instance, a[0], a[1], a[2], a[3], a[4], a[5], a[6]);
+        }
+      }
+    }
+    throw new IllegalArgumentException("Unsupported arity: " + arity);
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core.reflect;
+
+import static revxrsal.commands.ktx.call.KotlinConstants.isKotlinClass;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link MethodCallerFactory} that generates a small class for every method using the
+ * {@link LambdaMetafactory}. The generated class invokes the method directly (as if it was called
+ * from normal code), including casting and unboxing of the arguments.
+ * <p>
+ * Methods that cannot be linked this way (such as Kotlin functions, methods with too many
+ * parameters, or methods that are not accessible from this library on Java 8) fall back to
+ * {@link MethodCallerFactory#defaultFactory()}.
+ */
+final class LambdaMethodCallerFactory implements MethodCallerFactory {
+
+  public static final LambdaMethodCallerFactory INSTANCE = new LambdaMethodCallerFactory();
+
+  /**
+   * {@code MethodHandles.privateLookupIn(Class, Lookup)}, available on Java 9+. This allows
+   * generating the invoker class inside the command class itself, which gives it access to private
+   * methods.
+   */
+  private static final @Nullable Method PRIVATE_LOOKUP_IN = findPrivateLookupIn();
+
+  private static final Logger LOGGER = Logger.getLogger(LambdaMethodCallerFactory.class.getName());
+  private static final AtomicBoolean LOGGED_FALLBACK = new AtomicBoolean();
+
+  @Override
+  public @NotNull MethodCaller createFor(@NotNull Method method) throws Throwable {
+    MethodCaller caller = generate(method);
+    if (caller == null) {
+      return MethodCallerFactory.defaultFactory().createFor(method);
+    }
+    return caller;
+  }
+
+  private static @Nullable MethodCaller generate(@NotNull Method method) throws Throwable {
+    Class<?> declaringClass = method.getDeclaringClass();
+    if (isKotlinClass(declaringClass)) {
+      return null;
+    }
+    boolean isStatic = Modifier.isStatic(method.getModifiers());
+    int arity = method.getParameterCount() + (isStatic ? 0 : 1);
+    if (arity > LambdaInvokers.MAX_ARITY) {
+      return null;
+    }
+    try {
+      Lookup lookup = lookupFor(method);
+      if (lookup == null) {
+        return null;
+      }
+      MethodHandle implementation = lookup.unreflect(method);
+      MethodType implementationType = implementation.type();
+      boolean isVoid = implementationType.returnType() == void.class;
+      Class<?> invokerType = LambdaInvokers.interfaceFor(arity, isVoid);
+      CallSite site = LambdaMetafactory.metafactory(
+          lookup,
+          "invoke",
+          MethodType.methodType(invokerType),
+          implementationType.generic().changeReturnType(isVoid ? void.class : Object.class),
+          implementation,
+          implementationType.wrap().changeReturnType(isVoid ? void.class : Object.class)
+      );
+      Object invoker = site.getTarget().invoke();
+      return new GeneratedMethodCaller(LambdaInvokers.adapt(invoker, arity, isStatic),
+          method.toString());
+    } catch (IllegalAccessException | InvocationTargetException | LambdaConversionException
+             | IllegalAccessError | NoClassDefFoundError e) {
+      logFallback(method, e);
+      return null;
+    }
+  }
+
+  /**
+   * Warns about the first method that could not be linked, so that falling back to the slower
+   * caller is visible without flooding the log.
+   */
+  private static void logFallback(Method method, Throwable cause) {
+    if (LOGGED_FALLBACK.compareAndSet(false, true)) {
+      LOGGER.log(Level.WARNING, "Unable to generate an invoker for " + method
+          + ", falling back to the slower reflective method caller. Further failures are not logged.",
+          cause);
+    }
+  }
+
+  /**
+   * Returns a lookup that can link the given method, or null if the method is not accessible.
+   */
+  private static @Nullable Lookup lookupFor(Method method)
+      throws IllegalAccessException, InvocationTargetException {
+    Class<?> declaringClass = method.getDeclaringClass();
+    if (PRIVATE_LOOKUP_IN != null) {
+      return (Lookup) PRIVATE_LOOKUP_IN.invoke(null, declaringClass, MethodHandles.lookup());
+    }
+    // on Java 8, the generated class lives next to this class, so it can
+    // only call public methods of classes that it can see.
+    if (!Modifier.isPublic(method.getModifiers()) || !isPublic(declaringClass)) {
+      return null;
+    }
+    try {
+      if (Class.forName(declaringClass.getName(), false,
+          LambdaMethodCallerFactory.class.getClassLoader()) != declaringClass) {
+        return null;
+      }
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+    return MethodHandles.lookup();
+  }
+
+  private static boolean isPublic(Class<?> type) {
+    for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+      if (!Modifier.isPublic(c.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static @Nullable Method findPrivateLookupIn() {
+    try {
+      return MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "LambdaMethodCallerFactory";
+  }
+
+  private static final class GeneratedMethodCaller implements MethodCaller {
+
+    private final MethodCaller delegate;
+    private final String methodString;
+
+    GeneratedMethodCaller(MethodCaller delegate, String methodString) {
+      this.delegate = delegate;
+      this.methodString = methodString;
+    }
+
+    @Override
+    public Object call(@Nullable Object instance, Object... arguments) {
+      return delegate.call(instance, arguments);
+    }
+
+    @Override
+    public String toString() {
+      return "GeneratedMethodCaller(" + methodString + ")";
+    }
+  }
+}
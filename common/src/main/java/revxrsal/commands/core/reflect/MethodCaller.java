@@ -63,5 +63,20 @@ public interface MethodCaller {
      * @return The return result
      */
     Object call(@NotNull Object... arguments);
+
+    /**
+     * Returns a caller that receives the given parameters as primitives, so that they do not have
+     * to be boxed. The arguments passed to it have one extra element at the end, a
+     * {@code long[]} with one element for each parameter, from which the primitive parameters
+     * are read. {@code int} and {@code long} values are stored as they are, {@code boolean}s as
+     * {@code 1} or {@code 0}, and {@code float}s and {@code double}s as their raw bits. The
+     * other elements for the primitive parameters are ignored.
+     *
+     * @param primitive Whether each parameter is received as a primitive
+     * @return The caller, or null if this caller does not support primitive arguments
+     */
+    default @Nullable BoundMethodCaller withPrimitiveArguments(boolean @NotNull [] primitive) {
+      return null;
+    }
   }
 }
@@ -24,6 +24,7 @@
 package revxrsal.commands.core.reflect;
 
 import org.jetbrains.annotations.NotNull;
+import revxrsal.commands.CommandHandler;
 import revxrsal.commands.ktx.call.KotlinFunction;
 
 import java.lang.reflect.Method;
@@ -52,6 +53,32 @@ public interface MethodCallerFactory {
         return MethodHandlesCallerFactory.INSTANCE;
     }
 
+    /**
+     * Returns a {@link MethodCallerFactory} that adapts method handles to
+     * spread their arguments from an array, and binds the receiver into
+     * the handle itself. This avoids copying and boxing the arguments on
+     * every invocation.
+     *
+     * @return The spreading method caller factory.
+     */
+    static @NotNull MethodCallerFactory spreadMethodHandles() {
+        return SpreaderMethodCallerFactory.INSTANCE;
+    }
+
+    /**
+     * Returns a {@link MethodCallerFactory} that generates a class for every
+     * method using the {@link java.lang.invoke.LambdaMetafactory}, which invokes
+     * the method directly rather than reflectively.
+     * <p>
+     * Methods that cannot be generated this way fall back to {@link #defaultFactory()}.
+     *
+     * @return The generating method caller factory.
+     * @see CommandHandler#setMethodCallerFactory(MethodCallerFactory)
+     */
+    static @NotNull MethodCallerFactory lambdaMetafactory() {
+        return LambdaMethodCallerFactory.INSTANCE;
+    }
+
     /**
      * Returns a {@link MethodCallerFactory} that allows invocation
      * of Kotlin functions with their default values.
@@ -64,7 +91,7 @@ public interface MethodCallerFactory {
 
     /**
      * Returns the default {@link MethodCallerFactory}, which uses
-     * the method handles API to create method callers, and
+     * {@link #spreadMethodHandles() spreading method handles} to create method callers, and
      * {@link KotlinFunction} to call Kotlin methods.
      *
      * @return The default method caller factory.
@@ -0,0 +1,211 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.core.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.core.reflect.MethodCaller.BoundMethodCaller;
+
+/**
+ * A {@link MethodCallerFactory} that adapts method handles to a fixed {@code (Object[])Object}
+ * shape, which can be invoked with {@link MethodHandle#invokeExact(Object...)} without having to
+ * copy or box the arguments on every call.
+ * <p>
+ * Bound callers bind the receiver into the handle itself, so that the JIT can treat the handle as
+ * a constant. They also support
+ * {@link BoundMethodCaller#withPrimitiveArguments(boolean[]) primitive arguments}, which are
+ * read from a {@code long[]} and converted inside the handle.
+ */
+final class SpreaderMethodCallerFactory implements MethodCallerFactory {
+
+  public static final SpreaderMethodCallerFactory INSTANCE = new SpreaderMethodCallerFactory();
+
+  @Override
+  public @NotNull MethodCaller createFor(@NotNull Method method) throws Throwable {
+    if (!method.isAccessible()) {
+      method.setAccessible(true);
+    }
+    MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+    boolean isStatic = Modifier.isStatic(method.getModifiers());
+    return new SpreaderMethodCaller(handle, isStatic, method.getParameterCount(), method.toString());
+  }
+
+  /**
+   * Converts the given handle to a {@code (Object[])Object} handle, where all of its parameters
+   * are spread from the array.
+   *
+   * @param handle The handle to convert
+   * @return The spread handle
+   */
+  private static MethodHandle spread(MethodHandle handle) {
+    handle = handle.asType(handle.type().generic());
+    return handle.asSpreader(Object[].class, handle.type().parameterCount());
+  }
+
+  /**
+   * Converts the given handle to a {@code (Object[])Object} handle, where the primitive
+   * parameters are read from a {@code long[]} in the last element of the array, and all other
+   * parameters are spread from the array.
+   *
+   * @param handle    The handle to convert
+   * @param primitive Whether each parameter is primitive
+   * @return The spread handle
+   */
+  private static MethodHandle spreadWithPrimitives(MethodHandle handle, boolean[] primitive)
+      throws ReflectiveOperationException {
+    MethodType type = handle.type();
+    int count = type.parameterCount();
+    MethodHandle element = MethodHandles.arrayElementGetter(Object[].class);
+    MethodHandle primitives = MethodHandles.insertArguments(element, 1, count)
+        .asType(MethodType.methodType(long[].class, Object[].class));
+    MethodHandle[] getters = new MethodHandle[count];
+    for (int i = 0; i < count; i++) {
+      Class<?> parameterType = type.parameterType(i);
+      if (primitive[i]) {
+        MethodHandle slot = MethodHandles.insertArguments(
+            MethodHandles.arrayElementGetter(long[].class), 1, i);
+        getters[i] = MethodHandles.filterArguments(
+            MethodHandles.filterReturnValue(slot, decoder(parameterType)), 0, primitives);
+      } else {
+        getters[i] = MethodHandles.insertArguments(element, 1, i)
+            .asType(MethodType.methodType(parameterType, Object[].class));
+      }
+    }
+    // every parameter reads from the same array
+    MethodHandle spread = MethodHandles.permuteArguments(
+        MethodHandles.filterArguments(handle, 0, getters),
+        MethodType.methodType(type.returnType(), Object[].class),
+        new int[count]
+    );
+    return spread.asType(MethodType.methodType(Object.class, Object[].class));
+  }
+
+  /**
+   * Returns a {@code (long)type} handle that decodes a primitive stored as a {@code long}
+   */
+  private static MethodHandle decoder(Class<?> type) throws ReflectiveOperationException {
+    MethodHandle identity = MethodHandles.identity(long.class);
+    if (type == double.class) {
+      return MethodHandles.lookup().findStatic(Double.class, "longBitsToDouble",
+          MethodType.methodType(double.class, long.class));
+    }
+    if (type == float.class) {
+      MethodHandle intBits = MethodHandles.explicitCastArguments(identity,
+          MethodType.methodType(int.class, long.class));
+      return MethodHandles.filterReturnValue(intBits, MethodHandles.lookup().findStatic(
+          Float.class, "intBitsToFloat", MethodType.methodType(float.class, int.class)));
+    }
+    // narrows to int, or to boolean by the lowest bit
+    return MethodHandles.explicitCastArguments(identity, MethodType.methodType(type, long.class));
+  }
+
+  @Override
+  public String toString() {
+    return "SpreaderMethodCallerFactory";
+  }
+
+  private static final class SpreaderMethodCaller implements MethodCaller {
+
+    private final MethodHandle handle;
+    private final boolean isStatic;
+    private final String methodString;
+
+    /**
+     * {@code (Object[])Object} for static methods, {@code (Object, Object[])Object} otherwise
+     */
+    private final MethodHandle unbound;
+
+    SpreaderMethodCaller(MethodHandle handle, boolean isStatic, int parameterCount,
+        String methodString) {
+      this.handle = handle;
+      this.isStatic = isStatic;
+      this.methodString = methodString;
+      MethodHandle generic = handle.asType(handle.type().generic());
+      this.unbound = generic.asSpreader(Object[].class, parameterCount);
+    }
+
+    @SneakyThrows
+    @Override
+    public Object call(@Nullable Object instance, Object... arguments) {
+      if (isStatic) {
+        return (Object) unbound.invokeExact(arguments);
+      }
+      return (Object) unbound.invokeExact(instance, arguments);
+    }
+
+    @Override
+    public BoundMethodCaller bindTo(@Nullable Object instance) {
+      MethodHandle target = isStatic ? handle : handle.bindTo(instance);
+      return new BoundSpreaderMethodCaller(target, spread(target), methodString);
+    }
+
+    @Override
+    public String toString() {
+      return "SpreaderMethodCaller(" + methodString + ")";
+    }
+  }
+
+  private static final class BoundSpreaderMethodCaller implements BoundMethodCaller {
+
+    /**
+     * The bound handle, before spreading
+     */
+    private final MethodHandle target;
+    private final MethodHandle handle;
+    private final String methodString;
+
+    BoundSpreaderMethodCaller(MethodHandle target, MethodHandle handle, String methodString) {
+      this.target = target;
+      this.handle = handle;
+      this.methodString = methodString;
+    }
+
+    @SneakyThrows
+    @Override
+    public Object call(@NotNull Object... arguments) {
+      return (Object) handle.invokeExact(arguments);
+    }
+
+    @SneakyThrows
+    @Override
+    public @Nullable BoundMethodCaller withPrimitiveArguments(boolean @NotNull [] primitive) {
+      if (primitive.length != target.type().parameterCount()) {
+        return null;
+      }
+      return new BoundSpreaderMethodCaller(target, spreadWithPrimitives(target, primitive),
+          methodString);
+    }
+
+    @Override
+    public String toString() {
+      return "BoundSpreaderMethodCaller(" + methodString + ")";
+    }
+  }
+}
@@ -29,7 +29,7 @@ import revxrsal.commands.util.Strings;
 /**
  * Exception thrown when an error occurs while parsing arguments.
  */
-public class ArgumentParseException extends RuntimeException {
+public class ArgumentParseException extends UserErrorException {
 
   private static final long serialVersionUID = -8555316116315990226L;
 
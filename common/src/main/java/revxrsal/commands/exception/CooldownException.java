@@ -33,7 +33,7 @@ import revxrsal.commands.util.Preconditions;
  * Thrown when the {@link CommandActor} has to wait before executing a command again. This is set by
  * {@link Cooldown}.
  */
-public class CooldownException extends RuntimeException {
+public class CooldownException extends UserErrorException {
 
   /**
    * The time left (in milliseconds)
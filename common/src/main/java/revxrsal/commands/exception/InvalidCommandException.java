@@ -36,7 +36,7 @@ import revxrsal.commands.core.CommandPath;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class InvalidCommandException extends RuntimeException {
+public class InvalidCommandException extends UserErrorException {
 
   /**
    * The inputted path
@@ -34,7 +34,7 @@ import revxrsal.commands.help.CommandHelp;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class InvalidHelpPageException extends RuntimeException {
+public class InvalidHelpPageException extends UserErrorException {
 
   /**
    * The command help entries list
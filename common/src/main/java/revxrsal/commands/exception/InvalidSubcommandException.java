@@ -36,7 +36,7 @@ import revxrsal.commands.core.CommandPath;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class InvalidSubcommandException extends RuntimeException {
+public class InvalidSubcommandException extends UserErrorException {
 
   /**
    * The inputted path
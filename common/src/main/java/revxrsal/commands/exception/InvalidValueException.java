@@ -35,7 +35,7 @@ import revxrsal.commands.command.CommandParameter;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public abstract class InvalidValueException extends RuntimeException {
+public abstract class InvalidValueException extends UserErrorException {
 
   /**
    * The parameter being resolved
@@ -35,7 +35,7 @@ import revxrsal.commands.command.ExecutableCommand;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class MissingArgumentException extends RuntimeException {
+public class MissingArgumentException extends UserErrorException {
 
   /**
    * The parameter that is missing
@@ -41,7 +41,7 @@ import revxrsal.commands.command.trait.PermissionHolder;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class NoPermissionException extends RuntimeException {
+public class NoPermissionException extends UserErrorException {
 
   /**
    * The command being executed
@@ -38,7 +38,7 @@ import revxrsal.commands.command.CommandCategory;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class NoSubcommandSpecifiedException extends RuntimeException {
+public class NoSubcommandSpecifiedException extends UserErrorException {
 
   /**
    * The category that is inputted
@@ -37,7 +37,7 @@ import revxrsal.commands.command.CommandParameter;
  */
 @Getter
 @AllArgsConstructor
-public class NumberNotInRangeException extends RuntimeException {
+public class NumberNotInRangeException extends UserErrorException {
 
   /**
    * The command actor
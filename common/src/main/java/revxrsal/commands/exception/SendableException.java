@@ -33,7 +33,7 @@ import revxrsal.commands.command.CommandActor;
  * directly.
  */
 @ThrowableFromCommand
-public abstract class SendableException extends RuntimeException {
+public abstract class SendableException extends UserErrorException {
 
     /**
      * Constructs a new {@link SendableException} that does not send any message.
@@ -37,7 +37,7 @@ import revxrsal.commands.command.ExecutableCommand;
 @Getter
 @AllArgsConstructor
 @ThrowableFromCommand
-public class TooManyArgumentsException extends RuntimeException {
+public class TooManyArgumentsException extends UserErrorException {
 
   /**
    * The command being executed
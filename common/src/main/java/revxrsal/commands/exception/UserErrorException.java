@@ -0,0 +1,74 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.exception;
+
+import org.jetbrains.annotations.ApiStatus;
+import revxrsal.commands.CommandHandler;
+
+/**
+ * Base class for exceptions that signal a mistake made by the command sender,
+ * such as invalid input or a missing permission, rather than a failure inside
+ * the command itself.
+ * <p>
+ * These are thrown very frequently and their stack traces are never useful,
+ * so they can be created without one. See
+ * {@link CommandHandler#disableUserErrorStackTraces()}.
+ */
+public abstract class UserErrorException extends RuntimeException {
+
+  /* Whether the handler dispatching on this thread skips user error stack traces */
+  private static final ThreadLocal<boolean[]> STACKLESS = ThreadLocal.withInitial(() -> new boolean[1]);
+
+  public UserErrorException() {
+  }
+
+  public UserErrorException(String message) {
+    super(message);
+  }
+
+  public UserErrorException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  /**
+   * Sets whether user errors created on the current thread should skip their
+   * stack trace. Command handlers set this around their dispatch, and restore
+   * the returned value afterwards.
+   *
+   * @param stackless Whether to skip filling in stack traces
+   * @return The previous value
+   */
+  @ApiStatus.Internal
+  public static boolean setStacklessOnThread(boolean stackless) {
+    boolean[] state = STACKLESS.get();
+    boolean previous = state[0];
+    state[0] = stackless;
+    return previous;
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return STACKLESS.get()[0] ? this : super.fillInStackTrace();
+  }
+}
@@ -146,7 +146,7 @@ public final class KotlinSingletons {
     @SneakyThrows
     static MethodCaller wrapMethod(@NotNull Method method) {
         Preconditions.notNull(method, "method");
-        return MethodCallerFactory.methodHandles().createFor(method);
+        return MethodCallerFactory.spreadMethodHandles().createFor(method);
     }
 
 }
@@ -0,0 +1,99 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.process;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import org.jetbrains.annotations.NotNull;
+import revxrsal.commands.annotation.RunAsync;
+import revxrsal.commands.core.InstrumentedExecutor;
+
+/**
+ * An {@link Executor} for {@link RunAsync} commands that keeps track of its
+ * queued and running tasks.
+ *
+ * @see revxrsal.commands.CommandHandler#setAsyncExecutor(Executor)
+ */
+public interface AsyncExecutor extends Executor {
+
+  /**
+   * Returns the number of tasks that were submitted but have not started
+   * running yet
+   *
+   * @return The queue depth
+   */
+  int queueDepth();
+
+  /**
+   * Returns the number of tasks that are currently running, plus the
+   * {@link CompletionStage}s returned by asynchronous commands that have not
+   * completed yet.
+   *
+   * @return The in-flight count
+   */
+  int inFlight();
+
+  /**
+   * Counts the given stage as in flight until it completes.
+   *
+   * @param stage Stage to track
+   */
+  void track(@NotNull CompletionStage<?> stage);
+
+  /**
+   * Returns whether this executor runs each task on its own virtual thread
+   *
+   * @return Whether this executor uses virtual threads
+   */
+  boolean isVirtual();
+
+  /**
+   * Returns an executor that runs each task on a new virtual thread, so
+   * commands that block on I/O do not hold a platform thread.
+   * <p>
+   * Virtual threads are detected reflectively. On runtimes without them
+   * (anything before Java 21), this falls back to an unbounded pool of daemon
+   * platform threads, as was the default before virtual threads. Use
+   * {@link #bounded(int, int)} to cap the number of threads instead.
+   *
+   * @return The executor
+   */
+  static @NotNull AsyncExecutor virtualThreads() {
+    return InstrumentedExecutor.virtualThreads();
+  }
+
+  /**
+   * Returns an executor backed by a fixed number of daemon platform threads.
+   * Tasks submitted while the queue is full are rejected, which is reported
+   * to the actor through the exception handler.
+   *
+   * @param threads       The number of threads
+   * @param queueCapacity The maximum number of waiting tasks
+   * @return The executor
+   */
+  static @NotNull AsyncExecutor bounded(int threads, int queueCapacity) {
+    return InstrumentedExecutor.bounded(threads, queueCapacity);
+  }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.process;
+
+import static revxrsal.commands.util.Preconditions.checkArgument;
+import static revxrsal.commands.util.Preconditions.notNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.CommandHandler;
+import revxrsal.commands.annotation.Cached;
+import revxrsal.commands.command.ArgumentStack;
+import revxrsal.commands.command.CommandParameter;
+
+/**
+ * A {@link ValueResolver} that remembers the values of another resolver for a limited time.
+ * <p>
+ * Values are keyed by the argument they were resolved from, and optionally by the actor that
+ * executed the command. Only values that were resolved from exactly one argument are cached,
+ * and failures are never cached. Values that the resolver reports as
+ * {@link ResolveResult#dependsOnActor() depending on the actor}, such as {@code me}, are only
+ * cached when the cache is per actor. Parameters that may consume the rest of the input go
+ * through the underlying resolver when more than one argument is left, as the argument they
+ * would be keyed by does not determine their value.
+ * <p>
+ * The cache holds at most a fixed number of values, removing the least recently used one when
+ * it is full. Expired values are removed when they are looked up, or when they are the least
+ * recently used.
+ * <p>
+ * These can be passed to {@link CommandHandler#registerValueResolver(Class, ValueResolver)} or
+ * returned from a {@link ValueResolverFactory}. Parameters annotated with {@link Cached} get
+ * wrapped automatically. The cache of a parameter can be retrieved with
+ * {@link CommandHandler#getCachedResolver(CommandParameter)}.
+ *
+ * @param <T> The resolved type
+ */
+public final class CachedValueResolver<T> implements ResultValueResolver<T> {
+
+  private final ValueResolver<T> resolver;
+  private final long expireAfterNanos;
+  private final boolean perActor;
+  private final LinkedHashMap<Object, Entry> entries;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private CachedValueResolver(ValueResolver<T> resolver, long expireAfterNanos, int maximumSize,
+      boolean perActor) {
+    this.resolver = resolver;
+    this.expireAfterNanos = expireAfterNanos;
+    this.perActor = perActor;
+    this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+        return size() > maximumSize;
+      }
+    };
+  }
+
+  /**
+   * Creates a resolver that caches the values of the given resolver
+   *
+   * @param resolver    The resolver to cache
+   * @param expireAfter How long resolved values are kept
+   * @param unit        The time unit of {@code expireAfter}
+   * @param maximumSize The maximum number of values kept
+   * @param perActor    Whether values are cached separately for each actor
+   * @param <T>         The resolved type
+   * @return The caching resolver
+   */
+  public static <T> @NotNull CachedValueResolver<T> of(@NotNull ValueResolver<T> resolver,
+      long expireAfter, @NotNull TimeUnit unit, int maximumSize, boolean perActor) {
+    notNull(resolver, "resolver");
+    notNull(unit, "time unit");
+    checkArgument(expireAfter > 0, "expireAfter must be positive (got " + expireAfter + ")");
+    checkArgument(maximumSize > 0, "maximumSize must be positive (got " + maximumSize + ")");
+    return new CachedValueResolver<>(resolver, unit.toNanos(expireAfter), maximumSize, perActor);
+  }
+
+  /**
+   * Creates a resolver that caches the values of the given resolver, as specified by the
+   * {@link Cached} annotation
+   *
+   * @param resolver The resolver to cache
+   * @param cached   The cache settings
+   * @param <T>      The resolved type
+   * @return The caching resolver
+   */
+  public static <T> @NotNull CachedValueResolver<T> of(@NotNull ValueResolver<T> resolver,
+      @NotNull Cached cached) {
+    notNull(cached, "cached");
+    return of(resolver, cached.expireAfter(), cached.unit(), cached.maximumSize(),
+        cached.perActor());
+  }
+
+  /**
+   * Creates a {@link ValueResolverFactory} that caches the resolvers created by the given
+   * factory. Every parameter gets its own cache.
+   *
+   * @param factory     The factory to wrap
+   * @param expireAfter How long resolved values are kept
+   * @param unit        The time unit of {@code expireAfter}
+   * @param maximumSize The maximum number of values kept for each parameter
+   * @param perActor    Whether values are cached separately for each actor
+   * @return The wrapping factory
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static @NotNull ValueResolverFactory factory(@NotNull ValueResolverFactory factory,
+      long expireAfter, @NotNull TimeUnit unit, int maximumSize, boolean perActor) {
+    notNull(factory, "factory");
+    return parameter -> {
+      ValueResolver<?> resolver = factory.create(parameter);
+      if (resolver == null) {
+        return null;
+      }
+      return of((ValueResolver) resolver, expireAfter, unit, maximumSize, perActor);
+    };
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @NotNull ResolveResult<T> tryResolve(@NotNull ValueResolverContext context) {
+    ArgumentStack arguments = context.arguments();
+    String input = arguments.peekFirst();
+    if (input == null || arguments.size() > 1 && context.parameter().consumesAllString()) {
+      // greedy resolvers may consume more than the first argument
+      return resolver.tryResolve(context);
+    }
+    Object key = perActor ? new ActorKey(context.actor().getUniqueId(), input) : input;
+    long now = System.nanoTime();
+    Entry cached;
+    synchronized (entries) {
+      cached = entries.get(key);
+      if (cached != null && now - cached.createdAt >= expireAfterNanos) {
+        entries.remove(key);
+        cached = null;
+      }
+    }
+    if (cached != null) {
+      hits.increment();
+      arguments.removeFirst();
+      return ResolveResult.success((T) cached.value);
+    }
+    misses.increment();
+    int size = arguments.size();
+    ResolveResult<T> result = resolver.tryResolve(context);
+    if (result.isSuccess() && arguments.size() == size - 1
+        && (perActor || !result.dependsOnActor())) {
+      synchronized (entries) {
+        entries.put(key, new Entry(result.getValue(), now));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of times a cached value was used
+   *
+   * @return The cache hits
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of times the value had to be resolved
+   *
+   * @return The cache misses
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of values currently cached, including ones that have expired but were
+   * not removed yet
+   *
+   * @return The cache size
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Removes all expired values from the cache
+   */
+  public void cleanUp() {
+    long now = System.nanoTime();
+    synchronized (entries) {
+      Iterator<Entry> iterator = entries.values().iterator();
+      while (iterator.hasNext()) {
+        if (now - iterator.next().createdAt >= expireAfterNanos) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all values from the cache. This should be called when the underlying data changes.
+   */
+  public void invalidateAll() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  private static final class Entry {
+
+    private final @Nullable Object value;
+    private final long createdAt;
+
+    private Entry(@Nullable Object value, long createdAt) {
+      this.value = value;
+      this.createdAt = createdAt;
+    }
+  }
+
+  private static final class ActorKey {
+
+    private final UUID actor;
+    private final String input;
+
+    private ActorKey(UUID actor, String input) {
+      this.actor = actor;
+      this.input = input;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ActorKey)) {
+        return false;
+      }
+      ActorKey key = (ActorKey) o;
+      return actor.equals(key.actor) && input.equals(key.input);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(actor, input);
+    }
+  }
+}
@@ -52,4 +52,36 @@ public interface CommandCondition {
       @NotNull ExecutableCommand command,
       @NotNull @Unmodifiable List<String> arguments);
 
+  /**
+   * Returns whether this condition has to be tested for the given command.
+   * <p>
+   * This is checked once when the command is registered, and again if its permission changes.
+   * Conditions that do not apply to a command are never tested for it, so the result should only
+   * depend on things that are fixed at registration, such as the command's annotations.
+   * <p>
+   * By default, conditions apply to every command.
+   *
+   * @param command The command to check
+   * @return Whether this condition should be tested for the command
+   */
+  default boolean appliesTo(@NotNull ExecutableCommand command) {
+    return true;
+  }
+
+  /**
+   * Returns the condition to test for the given command, which this condition
+   * {@link #appliesTo(ExecutableCommand) applies to}.
+   * <p>
+   * This is called whenever {@link #appliesTo(ExecutableCommand)} is, so conditions can read what
+   * they need from the command once, such as its annotations, rather than on every invocation.
+   * <p>
+   * By default, this returns the condition itself.
+   *
+   * @param command The command to bind to
+   * @return The condition to test for the command
+   */
+  default @NotNull CommandCondition bindTo(@NotNull ExecutableCommand command) {
+    return this;
+  }
+
 }
@@ -0,0 +1,252 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.process;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import revxrsal.commands.command.ExecutableCommand;
+import revxrsal.commands.core.HistogramCommandMetrics;
+
+/**
+ * Records how long each command takes to dispatch, broken down into
+ * {@link Stage stages}, and how often it fails.
+ * <p>
+ * Implementations must be thread-safe, as commands may be dispatched from
+ * multiple threads at once.
+ *
+ * @see revxrsal.commands.CommandHandler#setCommandMetrics(CommandMetrics)
+ */
+public interface CommandMetrics {
+
+  /**
+   * Records a single dispatch of a command.
+   *
+   * @param command    The dispatched command
+   * @param stageNanos The time spent in each stage in nanoseconds, indexed by
+   *                   {@link Stage#ordinal()}. Stages that were not reached
+   *                   are negative.
+   * @param error      The exception that ended the dispatch, or null if it
+   *                   completed normally
+   */
+  void record(@NotNull ExecutableCommand command, long @NotNull [] stageNanos,
+      @Nullable Throwable error);
+
+  /**
+   * Returns a snapshot of the metrics of the given command
+   *
+   * @param command The command to look up
+   * @return The command metrics, or null if it was never dispatched
+   */
+  @Nullable Snapshot snapshot(@NotNull ExecutableCommand command);
+
+  /**
+   * Returns a snapshot of the metrics of every dispatched command
+   *
+   * @return The command metrics
+   */
+  @NotNull @Unmodifiable Collection<Snapshot> snapshots();
+
+  /**
+   * Writes a human-readable report of {@link #snapshots()} to the given file,
+   * replacing its content.
+   *
+   * @param file File to write to
+   * @throws IOException If the file could not be written
+   */
+  void dump(@NotNull File file) throws IOException;
+
+  /**
+   * Discards everything recorded so far
+   */
+  void reset();
+
+  /**
+   * Returns a new {@link CommandMetrics} that records latencies into
+   * log-linear histograms with a relative error of about 6%. Recording is
+   * lock-free and does not allocate once a command has been dispatched
+   * through every stage.
+   *
+   * @return The new command metrics
+   */
+  static @NotNull CommandMetrics histograms() {
+    return new HistogramCommandMetrics();
+  }
+
+  /**
+   * Returns a {@link CommandMetrics} that does not record anything
+   *
+   * @return The disabled command metrics
+   */
+  static @NotNull CommandMetrics disabled() {
+    return HistogramCommandMetrics.DISABLED;
+  }
+
+  /**
+   * The stages of dispatching a command
+   */
+  enum Stage {
+
+    /**
+     * Splitting the input into arguments
+     */
+    TOKENIZE,
+
+    /**
+     * Finding the command from its path
+     */
+    LOOKUP,
+
+    /**
+     * Testing the {@link CommandCondition}s
+     */
+    CONDITIONS,
+
+    /**
+     * Resolving and validating the parameters
+     */
+    ARGUMENTS,
+
+    /**
+     * Calling the command method
+     */
+    INVOCATION,
+
+    /**
+     * Handling the value returned by the command method
+     */
+    RESPONSE
+
+  }
+
+  /**
+   * The metrics of a single command
+   */
+  interface Snapshot {
+
+    /**
+     * Returns the command ID
+     *
+     * @return The command ID
+     * @see ExecutableCommand#getId()
+     */
+    int commandId();
+
+    /**
+     * Returns the full path of the command
+     *
+     * @return The command path
+     */
+    @NotNull String path();
+
+    /**
+     * Returns the number of times the command was dispatched
+     *
+     * @return The invocations
+     */
+    long invocations();
+
+    /**
+     * Returns the number of dispatches that ended with an exception
+     *
+     * @return The errors
+     */
+    long errors();
+
+    /**
+     * Returns the number of errors for each exception type. Exceptions thrown
+     * by the command method are counted by their own type rather than as a
+     * {@link revxrsal.commands.exception.CommandInvocationException}.
+     *
+     * @return The errors by type
+     */
+    @NotNull @Unmodifiable Map<Class<? extends Throwable>, Long> errorsByType();
+
+    /**
+     * Returns the latency of the given stage
+     *
+     * @param stage The dispatch stage
+     * @return The stage latency
+     */
+    @NotNull Latency latency(@NotNull Stage stage);
+
+    /**
+     * Returns the latency of the whole dispatch, which is the sum of all the
+     * stages that were reached.
+     *
+     * @return The total latency
+     */
+    @NotNull Latency totalLatency();
+
+  }
+
+  /**
+   * A distribution of latencies, in nanoseconds
+   */
+  interface Latency {
+
+    /**
+     * Returns the number of recorded values
+     *
+     * @return The count
+     */
+    long count();
+
+    /**
+     * Returns the smallest recorded value, or 0 if there are none
+     *
+     * @return The minimum
+     */
+    long min();
+
+    /**
+     * Returns the largest recorded value, or 0 if there are none
+     *
+     * @return The maximum
+     */
+    long max();
+
+    /**
+     * Returns the mean of the recorded values, or 0 if there are none
+     *
+     * @return The mean
+     */
+    double mean();
+
+    /**
+     * Returns the value below which the given percentage of the recorded
+     * values fall, or 0 if there are none
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The value at the percentile
+     */
+    long percentile(double percentile);
+
+  }
+
+}
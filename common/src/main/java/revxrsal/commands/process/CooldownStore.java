@@ -0,0 +1,103 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.process;
+
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import revxrsal.commands.annotation.Cooldown;
+import revxrsal.commands.core.StripedCooldownStore;
+
+/**
+ * Stores the cooldowns started by commands annotated with {@link Cooldown}.
+ * <p>
+ * Implementations must be thread-safe, as commands may be dispatched from
+ * multiple threads at once.
+ *
+ * @see revxrsal.commands.CommandHandler#setCooldownStore(CooldownStore)
+ */
+public interface CooldownStore {
+
+  /**
+   * Attempts to start a cooldown for the given actor and command.
+   * <p>
+   * If the actor is still on cooldown for the command, this returns the
+   * remaining time and leaves the cooldown untouched. Otherwise, a new
+   * cooldown of {@code durationMillis} is started and this returns 0.
+   *
+   * @param actor          The actor's unique ID
+   * @param commandId      The command ID
+   * @param durationMillis The cooldown duration, in milliseconds
+   * @return The remaining cooldown in milliseconds, or 0 if it was started
+   */
+  long acquire(@NotNull UUID actor, int commandId, long durationMillis);
+
+  /**
+   * Returns a snapshot of this store's statistics
+   *
+   * @return The store statistics
+   */
+  @NotNull Stats stats();
+
+  /**
+   * Returns a new {@link CooldownStore} that is split into lock-striped
+   * tables, expires entries lazily on lookup and evicts them in bulk through
+   * a hashed timer wheel. No background thread is used.
+   *
+   * @return The new cooldown store
+   */
+  static @NotNull CooldownStore striped() {
+    return new StripedCooldownStore();
+  }
+
+  /**
+   * Statistics of a {@link CooldownStore}
+   */
+  interface Stats {
+
+    /**
+     * Returns the number of cooldowns currently stored. This may include
+     * cooldowns that have expired but were not evicted yet.
+     *
+     * @return The live entries
+     */
+    long liveEntries();
+
+    /**
+     * Returns the total number of expired cooldowns that were evicted
+     *
+     * @return The total evictions
+     */
+    long evictions();
+
+    /**
+     * Returns the eviction rate, measured since the previous snapshot
+     * that was at least a second older than this one.
+     *
+     * @return The evictions per second
+     */
+    double evictionsPerSecond();
+
+  }
+
+}
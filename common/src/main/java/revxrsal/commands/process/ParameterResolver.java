@@ -50,6 +50,17 @@ public interface ParameterResolver<T> {
    */
   boolean mutatesArguments();
 
+  /**
+   * Returns whether the resolved value depends only on the consumed arguments, in which case
+   * default values of the parameter are resolved only once.
+   *
+   * @return If this resolver is pure
+   * @see PureValueResolver
+   */
+  default boolean isPure() {
+    return false;
+  }
+
   /**
    * Resolves the value of the parameter from the given context.
    *
@@ -0,0 +1,73 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.process;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.CommandHandler;
+import revxrsal.commands.annotation.Range;
+import revxrsal.commands.command.CommandParameter;
+
+/**
+ * Creates a {@link ParameterValidator} for specific parameters. Factories are invoked once
+ * when a command is registered, so anything that depends only on the parameter (such as its
+ * type or annotations) can be read there instead of on every invocation.
+ * <p>
+ * For example, the following validates the {@link Range} of {@code int} parameters, with the
+ * bounds looked up only once:
+ * <pre>{@code
+ * enum IntRangeValidatorFactory implements ParameterValidatorFactory {
+ *
+ *     INSTANCE;
+ *
+ *     @Override public @Nullable ParameterValidator<?> create(@NotNull CommandParameter parameter) {
+ *         if (parameter.getType() != int.class) return null;
+ *         Range range = parameter.getAnnotation(Range.class);
+ *         if (range == null) return null;
+ *         double min = range.min(), max = range.max();
+ *         return (ParameterValidator<Integer>) (value, param, actor) -> {
+ *             if (value < min || value > max)
+ *                 throw new NumberNotInRangeException(actor, param, value, min, max);
+ *         };
+ *     }
+ * }}</pre>
+ * <p>
+ * Returning {@code null} means the parameter needs no validation from this factory, and
+ * nothing is run for it when the command is executed.
+ * <p>
+ * Note that {@link ParameterValidatorFactory}ies must be registered
+ * with {@link CommandHandler#registerParameterValidatorFactory(ParameterValidatorFactory)}.
+ */
+public interface ParameterValidatorFactory {
+
+  /**
+   * Creates a validator for the specified parameter, or {@code null} if the parameter does not
+   * need to be validated by this factory.
+   *
+   * @param parameter The parameter to create for
+   * @return The {@link ParameterValidator}, or null if not needed.
+   */
+  @Nullable ParameterValidator<?> create(@NotNull CommandParameter parameter);
+
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.process;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link ValueResolver} that produces a primitive value. Resolving through the primitive
+ * methods of the specialized interfaces ({@link OfInt#resolveInt(ValueResolverContext)} and
+ * so on) does not box the value. It is boxed only once, when it is passed to the command method.
+ *
+ * @param <T> The boxed type of the resolved value
+ */
+public interface PrimitiveValueResolver<T> extends ValueResolver<T> {
+
+  /**
+   * A resolver of {@code int} values
+   */
+  @FunctionalInterface
+  interface OfInt extends PrimitiveValueResolver<Integer> {
+
+    /**
+     * Resolves the value of this resolver
+     *
+     * @param context The command resolving context.
+     * @return The resolved value
+     * @throws Throwable Any exceptions that should be handled by the exception handler
+     */
+    int resolveInt(@NotNull ValueResolverContext context) throws Throwable;
+
+    @Override
+    default Integer resolve(@NotNull ValueResolverContext context) throws Throwable {
+      return resolveInt(context);
+    }
+  }
+
+  /**
+   * A resolver of {@code long} values
+   */
+  @FunctionalInterface
+  interface OfLong extends PrimitiveValueResolver<Long> {
+
+    /**
+     * Resolves the value of this resolver
+     *
+     * @param context The command resolving context.
+     * @return The resolved value
+     * @throws Throwable Any exceptions that should be handled by the exception handler
+     */
+    long resolveLong(@NotNull ValueResolverContext context) throws Throwable;
+
+    @Override
+    default Long resolve(@NotNull ValueResolverContext context) throws Throwable {
+      return resolveLong(context);
+    }
+  }
+
+  /**
+   * A resolver of {@code double} values
+   */
+  @FunctionalInterface
+  interface OfDouble extends PrimitiveValueResolver<Double> {
+
+    /**
+     * Resolves the value of this resolver
+     *
+     * @param context The command resolving context.
+     * @return The resolved value
+     * @throws Throwable Any exceptions that should be handled by the exception handler
+     */
+    double resolveDouble(@NotNull ValueResolverContext context) throws Throwable;
+
+    @Override
+    default Double resolve(@NotNull ValueResolverContext context) throws Throwable {
+      return resolveDouble(context);
+    }
+  }
+
+  /**
+   * A resolver of {@code float} values
+   */
+  @FunctionalInterface
+  interface OfFloat extends PrimitiveValueResolver<Float> {
+
+    /**
+     * Resolves the value of this resolver
+     *
+     * @param context The command resolving context.
+     * @return The resolved value
+     * @throws Throwable Any exceptions that should be handled by the exception handler
+     */
+    float resolveFloat(@NotNull ValueResolverContext context) throws Throwable;
+
+    @Override
+    default Float resolve(@NotNull ValueResolverContext context) throws Throwable {
+      return resolveFloat(context);
+    }
+  }
+
+  /**
+   * A resolver of {@code boolean} values
+   */
+  @FunctionalInterface
+  interface OfBoolean extends PrimitiveValueResolver<Boolean> {
+
+    /**
+     * Resolves the value of this resolver
+     *
+     * @param context The command resolving context.
+     * @return The resolved value
+     * @throws Throwable Any exceptions that should be handled by the exception handler
+     */
+    boolean resolveBoolean(@NotNull ValueResolverContext context) throws Throwable;
+
+    @Override
+    default Boolean resolve(@NotNull ValueResolverContext context) throws Throwable {
+      return resolveBoolean(context);
+    }
+  }
+}
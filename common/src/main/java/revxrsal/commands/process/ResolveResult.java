@@ -0,0 +1,170 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.process;
+
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import revxrsal.commands.util.Preconditions;
+
+/**
+ * The outcome of {@link ValueResolver#tryResolve(ValueResolver.ValueResolverContext)}, which is
+ * either a resolved value or the reason the input could not be resolved.
+ * <p>
+ * A failure only describes how to create its exception, so resolvers can reject input without
+ * constructing one. The exception is created when {@link #getOrThrow()} is called, which is
+ * usually only for the error that ends up being reported to the actor.
+ *
+ * @param <T> The resolved type
+ */
+public final class ResolveResult<T> {
+
+  private final @Nullable T value;
+  private final @Nullable Supplier<? extends Throwable> failure;
+  private final boolean dependsOnActor;
+
+  private ResolveResult(@Nullable T value, @Nullable Supplier<? extends Throwable> failure,
+      boolean dependsOnActor) {
+    this.value = value;
+    this.failure = failure;
+    this.dependsOnActor = dependsOnActor;
+  }
+
+  /**
+   * Creates a successful result
+   *
+   * @param value The resolved value. May be null.
+   * @param <T>   The resolved type
+   * @return The result
+   */
+  public static <T> @NotNull ResolveResult<T> success(@Nullable T value) {
+    return new ResolveResult<>(value, null, false);
+  }
+
+  /**
+   * Creates a successful result whose value depends on the actor rather than only on the input,
+   * such as {@code me} resolving to the actor itself. Such values are never shared between
+   * actors by a {@link CachedValueResolver}.
+   *
+   * @param value The resolved value. May be null.
+   * @param <T>   The resolved type
+   * @return The result
+   */
+  public static <T> @NotNull ResolveResult<T> successForActor(@Nullable T value) {
+    return new ResolveResult<>(value, null, true);
+  }
+
+  /**
+   * Creates a failed result
+   *
+   * @param reason Creates the exception to throw if this failure is reported
+   * @param <T>    The resolved type
+   * @return The result
+   */
+  public static <T> @NotNull ResolveResult<T> failure(
+      @NotNull Supplier<? extends Throwable> reason) {
+    Preconditions.notNull(reason, "reason");
+    return new ResolveResult<>(null, reason, false);
+  }
+
+  /**
+   * Creates a failed result from an exception that has already been thrown
+   *
+   * @param reason The exception
+   * @param <T>    The resolved type
+   * @return The result
+   */
+  public static <T> @NotNull ResolveResult<T> failure(@NotNull Throwable reason) {
+    Preconditions.notNull(reason, "reason");
+    return new ResolveResult<>(null, () -> reason, false);
+  }
+
+  /**
+   * Returns the given result as a result of a supertype. Results are immutable, so this is
+   * always safe.
+   *
+   * @param result The result
+   * @param <T>    The supertype
+   * @return The same result
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> @NotNull ResolveResult<T> widen(@NotNull ResolveResult<? extends T> result) {
+    return (ResolveResult<T>) result;
+  }
+
+  /**
+   * Returns whether the value was resolved
+   *
+   * @return If this result is successful
+   */
+  public boolean isSuccess() {
+    return failure == null;
+  }
+
+  /**
+   * Returns whether the value could not be resolved
+   *
+   * @return If this result is a failure
+   */
+  public boolean isFailure() {
+    return failure != null;
+  }
+
+  /**
+   * Returns whether the resolved value depends on the actor, and not only on the input
+   *
+   * @return If the value depends on the actor
+   * @see #successForActor(Object)
+   */
+  public boolean dependsOnActor() {
+    return dependsOnActor;
+  }
+
+  /**
+   * Returns the resolved value
+   *
+   * @return The value
+   * @throws NoSuchElementException if this result is a failure
+   */
+  public T getValue() {
+    if (failure != null) {
+      throw new NoSuchElementException("Value was not resolved");
+    }
+    return value;
+  }
+
+  /**
+   * Returns the resolved value, or throws the failure reason if it could not be resolved.
+   *
+   * @return The value
+   * @throws Throwable The failure reason
+   */
+  public T getOrThrow() throws Throwable {
+    if (failure != null) {
+      throw failure.get();
+    }
+    return value;
+  }
+}
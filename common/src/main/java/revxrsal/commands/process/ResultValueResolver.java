@@ -0,0 +1,56 @@
+/*
+ * This file is part of lamp, licensed under the MIT License.
+ *
+ *  Copysecond (c) Revxrsal <reflxction.github@gmail.com>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the seconds
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copysecond notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package revxrsal.commands.process;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link ValueResolver} that reports invalid input through a {@link ResolveResult} instead of
+ * throwing.
+ * <p>
+ * Resolvers of this type are cheaper to try when the input may legitimately fail, such as the
+ * first side of an {@link revxrsal.commands.util.Either}.
+ *
+ * @param <T> The resolved type
+ */
+@FunctionalInterface
+public interface ResultValueResolver<T> extends ValueResolver<T> {
+
+  /**
+   * Resolves the value of this resolver without throwing for invalid input
+   *
+   * @param context The command resolving context.
+   * @return The resolved value, or the reason it could not be resolved
+   */
+  @Override
+  @NotNull ResolveResult<T> tryResolve(@NotNull ValueResolverContext context);
+
+  /**
+   * Resolves the value, throwing the failure reason if the input is invalid.
+   */
+  @Override
+  default T resolve(@NotNull ValueResolverContext context) throws Throwable {
+    return tryResolve(context).getOrThrow();
+  }
+}
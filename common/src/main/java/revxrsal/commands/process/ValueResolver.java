@@ -49,6 +49,36 @@ public interface ValueResolver<T> {
    */
   T resolve(@NotNull ValueResolverContext context) throws Throwable;
 
+  /**
+   * Resolves the value of this resolver, returning the reason for failure instead of throwing
+   * it.
+   * <p>
+   * By default, this catches whatever {@link #resolve(ValueResolverContext)} throws. Resolvers
+   * that can check their input up front should implement {@link ResultValueResolver} instead.
+   *
+   * @param context The command resolving context.
+   * @return The resolved value, or the reason it could not be resolved
+   * @see ResultValueResolver
+   */
+  default @NotNull ResolveResult<T> tryResolve(@NotNull ValueResolverContext context) {
+    try {
+      return ResolveResult.success(resolve(context));
+    } catch (Throwable t) {
+      return ResolveResult.failure(t);
+    }
+  }
+
+  /**
+   * Returns whether the resolved value depends only on the consumed arguments. Values of such
+   * resolvers may be resolved once and reused.
+   *
+   * @return If this resolver is pure
+   * @see PureValueResolver
+   */
+  default boolean isPure() {
+    return false;
+  }
+
   /**
    * Represents the resolving context of {@link ValueResolver}. This contains all the relevant
    * information about the resolving context.
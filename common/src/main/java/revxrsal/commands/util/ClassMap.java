@@ -23,18 +23,40 @@
  */
 package revxrsal.commands.util;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jetbrains.annotations.NotNull;
 
-public final class ClassMap<V> extends HashMap<Class<?>, V> {
+/**
+ * A map of types to values, where looking up a type with {@link #getFlexible(Class)}
+ * falls back to the value registered for its closest supertype or interface.
+ * <p>
+ * The result of resolving each type, including the absence of a value, is
+ * cached until the map is next modified, so repeated lookups are a single
+ * read from a concurrent map. This map is safe to read and modify from
+ * multiple threads.
+ *
+ * @param <V> The value type
+ */
+public final class ClassMap<V> extends AbstractMap<Class<?>, V> {
+
+  private static final Object MISSING = new Object();
+
+  private final Map<Class<?>, V> entries = new ConcurrentHashMap<>();
+  private volatile Map<Class<?>, Object> resolved = new ConcurrentHashMap<>();
 
   public boolean add(Class<?> type, V value) {
-    Class<?> wrapped = Primitives.wrap(type);
-    if (containsKey(wrapped)) {
+    if (entries.putIfAbsent(Primitives.wrap(type), value) != null) {
       return false;
     }
-    put(wrapped, value);
-    return false;
+    invalidate();
+    return true;
   }
 
   public V getFlexibleOrDefault(@NotNull Class<?> key, V def) {
@@ -45,19 +67,83 @@ public final class ClassMap<V> extends HashMap<Class<?>, V> {
     return value;
   }
 
+  @SuppressWarnings("unchecked")
   public V getFlexible(@NotNull Class<?> key) {
-    key = Primitives.wrap(key);
-    V v = get(key);
-    if (v != null) {
-      return v;
+    Map<Class<?>, Object> resolved = this.resolved;
+    Object value = resolved.get(key);
+    if (value == null) {
+      value = resolve(Primitives.wrap(key));
+      resolved.put(key, value == null ? MISSING : value);
     }
-    for (Entry<Class<?>, V> entry : entrySet()) {
-      if (entry.getKey().isAssignableFrom(key)) {
-        v = entry.getValue();
-        break;
+    return value == MISSING ? null : (V) value;
+  }
+
+  /**
+   * Finds the value of the given type, or of its nearest supertype by walking
+   * the superclasses and interfaces breadth-first.
+   */
+  private V resolve(@NotNull Class<?> type) {
+    Queue<Class<?>> queue = new ArrayDeque<>();
+    Set<Class<?>> visited = new HashSet<>();
+    queue.add(type);
+    while (!queue.isEmpty()) {
+      Class<?> next = queue.poll();
+      if (!visited.add(next)) {
+        continue;
       }
+      V value = entries.get(next);
+      if (value != null) {
+        return value;
+      }
+      if (next.getSuperclass() != null) {
+        queue.add(next.getSuperclass());
+      }
+      Collections.addAll(queue, next.getInterfaces());
     }
-    put(key, v);
-    return v;
+    return entries.get(Object.class);
+  }
+
+  private void invalidate() {
+    resolved = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public V get(Object key) {
+    return entries.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return entries.containsKey(key);
+  }
+
+  @Override
+  public V put(Class<?> key, V value) {
+    V previous = entries.put(key, value);
+    invalidate();
+    return previous;
+  }
+
+  @Override
+  public V remove(Object key) {
+    V previous = entries.remove(key);
+    invalidate();
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    entries.clear();
+    invalidate();
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public @NotNull Set<Entry<Class<?>, V>> entrySet() {
+    return Collections.unmodifiableSet(entries.entrySet());
   }
 }
@@ -51,129 +51,175 @@ public final class QuotedStringTokenizer {
     private QuotedStringTokenizer() {
     }
 
-    private static final int CHAR_BACKSLASH = '\\';
-    private static final int CHAR_SINGLE_QUOTE = '\'';
-    private static final int CHAR_DOUBLE_QUOTE = '"';
+    private static final char CHAR_BACKSLASH = '\\';
+    private static final char CHAR_SINGLE_QUOTE = '\'';
+    private static final char CHAR_DOUBLE_QUOTE = '"';
 
     public static ArgumentStack parse(@NotNull String arguments) throws ArgumentParseException {
         if (arguments.length() == 0) {
             return ArgumentStack.empty();
         }
-        TokenizerState state = new TokenizerState(arguments);
         ArgumentStack returnedArgs = ArgumentStack.empty();
-        while (state.hasMore()) {
-            skipWhiteSpace(state);
-            String arg = nextArg(state);
-            returnedArgs.add(arg);
+        int length = arguments.length();
+        int index = 0;
+        while (index < length) {
+            /* To make it skip ALL additional whitespace, replace if with while */
+            if (Character.isWhitespace(arguments.charAt(index))) {
+                index++;
+            }
+            index = nextArg(arguments, index, returnedArgs);
         }
         return returnedArgs;
     }
 
+    /**
+     * Parses the given arguments, which are assumed to have been split by
+     * a single space (such as the ones passed by the platform). This is
+     * equivalent to {@code parse(String.join(" ", arguments))}, however it
+     * avoids joining and re-tokenizing when none of the arguments contain
+     * quotes, backslashes or whitespace.
+     *
+     * @param arguments The arguments to parse
+     * @return The parsed arguments
+     */
+    public static ArgumentStack parse(@NotNull String[] arguments) throws ArgumentParseException {
+        if (arguments.length == 0 || (arguments.length == 1 && arguments[0].isEmpty())) {
+            return ArgumentStack.empty();
+        }
+        if (!isPlain(arguments)) {
+            return parse(String.join(" ", arguments));
+        }
+        return ArgumentStack.copyExact(arguments);
+    }
+
     public static ArgumentStack parseForAutoCompletion(@NotNull String args) {
         if (args.isEmpty())
             return ArgumentStack.copyExact(EMPTY_TEXT);
         return parse(args);
     }
 
-    private static void skipWhiteSpace(TokenizerState state) throws ArgumentParseException {
-        if (!state.hasMore()) {
-            return;
-        }
-        /* To make it skip ALL additional whitespace, replace if with while */
-//        while (state.hasMore() && Character.isWhitespace(state.peek())) {
-        if (Character.isWhitespace(state.peek())) {
-            state.next();
-        }
+    /**
+     * Parses the given arguments for auto-completion. See {@link #parse(String[])}.
+     *
+     * @param args The arguments to parse
+     * @return The parsed arguments
+     */
+    public static ArgumentStack parseForAutoCompletion(@NotNull String[] args) {
+        if (args.length == 0 || (args.length == 1 && args[0].isEmpty()))
+            return ArgumentStack.copyExact(EMPTY_TEXT);
+        return parse(args);
     }
 
-    private static String nextArg(TokenizerState state) throws ArgumentParseException {
-        StringBuilder argBuilder = new StringBuilder();
-        if (state.hasMore()) {
-            int codePoint = state.peek();
-            if (codePoint == CHAR_DOUBLE_QUOTE || codePoint == CHAR_SINGLE_QUOTE) {
-                // quoted string
-                parseQuotedString(state, codePoint, argBuilder);
-            } else {
-                parseUnquotedString(state, argBuilder);
+    /**
+     * Tests whether the split arguments map exactly to their tokens. A leading
+     * empty argument is swallowed as whitespace by the tokenizer, so it is not
+     * considered plain.
+     */
+    private static boolean isPlain(String[] arguments) {
+        if (arguments[0].isEmpty()) {
+            return false;
+        }
+        for (String argument : arguments) {
+            for (int i = 0; i < argument.length(); i++) {
+                char c = argument.charAt(i);
+                if (c == CHAR_BACKSLASH || c == CHAR_DOUBLE_QUOTE || c == CHAR_SINGLE_QUOTE || Character.isWhitespace(c)) {
+                    return false;
+                }
             }
         }
-        return argBuilder.toString();
+        return true;
     }
 
-    private static void parseQuotedString(TokenizerState state, int startQuotation, StringBuilder builder) throws ArgumentParseException {
-        // Consume the start quotation character
-        int nextCodePoint = state.next();
-        if (nextCodePoint != startQuotation) {
-            throw state.createException(String.format("Actual next character '%c' did not match expected quotation character '%c'",
-                    nextCodePoint, startQuotation));
+    /**
+     * Parses the argument that starts at the given index and adds it to the output.
+     *
+     * @return The index right after the argument
+     */
+    private static int nextArg(String buffer, int start, List<String> output) {
+        if (start >= buffer.length()) {
+            output.add("");
+            return start;
         }
-
-        while (true) {
-            if (!state.hasMore()) {
-                return;
-            }
-            nextCodePoint = state.peek();
-            if (nextCodePoint == startQuotation) {
-                state.next();
-                return;
-            } else if (nextCodePoint == CHAR_BACKSLASH) {
-                parseEscape(state, builder);
-            } else {
-                builder.appendCodePoint(state.next());
-            }
+        char c = buffer.charAt(start);
+        if (c == CHAR_DOUBLE_QUOTE || c == CHAR_SINGLE_QUOTE) {
+            return parseQuotedString(buffer, start, c, output);
         }
+        return parseUnquotedString(buffer, start, output);
     }
 
-    private static void parseUnquotedString(TokenizerState state, StringBuilder builder) throws ArgumentParseException {
-        while (state.hasMore()) {
-            int nextCodePoint = state.peek();
-            if (Character.isWhitespace(nextCodePoint)) {
-                return;
-            } else if (nextCodePoint == CHAR_BACKSLASH) {
-                parseEscape(state, builder);
-            } else {
-                builder.appendCodePoint(state.next());
+    private static int parseQuotedString(String buffer, int start, char quotation, List<String> output) {
+        int length = buffer.length();
+        // skip the start quotation character
+        for (int i = start + 1; i < length; i++) {
+            char c = buffer.charAt(i);
+            if (c == quotation) {
+                output.add(buffer.substring(start + 1, i));
+                return i + 1;
+            } else if (c == CHAR_BACKSLASH) {
+                StringBuilder builder = new StringBuilder(length - start).append(buffer, start + 1, i);
+                return parseQuotedEscaped(buffer, i, quotation, builder, output);
             }
         }
+        output.add(buffer.substring(start + 1));
+        return length;
     }
 
-    private static void parseEscape(TokenizerState state, StringBuilder builder) throws ArgumentParseException {
-        state.next(); // Consume \
-        if(state.hasMore()) {
-            builder.appendCodePoint(state.next());
+    private static int parseQuotedEscaped(String buffer, int index, char quotation, StringBuilder builder, List<String> output) {
+        int length = buffer.length();
+        while (index < length) {
+            char c = buffer.charAt(index);
+            if (c == quotation) {
+                index++;
+                break;
+            } else if (c == CHAR_BACKSLASH) {
+                index = parseEscape(buffer, index, builder);
+            } else {
+                builder.append(c);
+                index++;
+            }
         }
+        output.add(builder.toString());
+        return index;
     }
 
-    private static class TokenizerState {
-
-        private final String buffer;
-        private int index = -1;
-
-        TokenizerState(String buffer) {
-            this.buffer = buffer;
-        }
-
-        // Utility methods
-        public boolean hasMore() {
-            return index + 1 < buffer.length();
-        }
-
-        public int peek() throws ArgumentParseException {
-            if (!hasMore()) {
-                throw createException("Buffer overrun while parsing args");
+    private static int parseUnquotedString(String buffer, int start, List<String> output) {
+        int length = buffer.length();
+        for (int i = start; i < length; i++) {
+            char c = buffer.charAt(i);
+            if (Character.isWhitespace(c)) {
+                output.add(buffer.substring(start, i));
+                return i;
+            } else if (c == CHAR_BACKSLASH) {
+                StringBuilder builder = new StringBuilder(length - start).append(buffer, start, i);
+                return parseUnquotedEscaped(buffer, i, builder, output);
             }
-            return buffer.codePointAt(index + 1);
         }
+        output.add(start == 0 ? buffer : buffer.substring(start));
+        return length;
+    }
 
-        public int next() throws ArgumentParseException {
-            if (!hasMore()) {
-                throw createException("Buffer overrun while parsing args");
+    private static int parseUnquotedEscaped(String buffer, int index, StringBuilder builder, List<String> output) {
+        int length = buffer.length();
+        while (index < length) {
+            char c = buffer.charAt(index);
+            if (Character.isWhitespace(c)) {
+                break;
+            } else if (c == CHAR_BACKSLASH) {
+                index = parseEscape(buffer, index, builder);
+            } else {
+                builder.append(c);
+                index++;
             }
-            return buffer.codePointAt(++index);
         }
+        output.add(builder.toString());
+        return index;
+    }
 
-        public ArgumentParseException createException(String message) {
-            return new ArgumentParseException(message, buffer, index);
+    private static int parseEscape(String buffer, int index, StringBuilder builder) {
+        index++; // Consume \
+        if (index < buffer.length()) {
+            builder.append(buffer.charAt(index++));
         }
+        return index;
     }
 }